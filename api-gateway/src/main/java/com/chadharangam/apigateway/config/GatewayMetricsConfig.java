@@ -0,0 +1,101 @@
+package com.chadharangam.apigateway.config;
+
+import com.chadharangam.apigateway.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency split by where it is spent. Per-route totals come from the gateway's own
+ * {@code spring.cloud.gateway.requests} timer; this adds the upstream side (Reactor Netty's
+ * {@code reactor.netty.http.client.*} connect and response-time histograms per backend
+ * address) and {@code gateway.discovery.resolve}, the time the load balancer takes to turn an
+ * {@code lb://} route into an instance from Eureka.
+ */
+@Configuration
+public class GatewayMetricsConfig {
+
+    private static final String RESOLVE_START = GatewayMetricsConfig.class.getName() + ".resolveStart";
+
+    @Bean
+    public HttpClientCustomizer upstreamMetrics() {
+        return httpClient -> httpClient.metrics(true, GatewayMetricsConfig::uriTag);
+    }
+
+    @Bean
+    public GlobalFilter discoveryResolveStart() {
+        return new ResolveStart();
+    }
+
+    @Bean
+    public GlobalFilter discoveryResolveEnd(MeterRegistry registry) {
+        return new ResolveEnd(registry);
+    }
+
+    // Backend paths carry ids; keep the first two segments (/api/games) so the tag stays bounded.
+    static String uriTag(String uri) {
+        int end = uri.indexOf('?');
+        String path = end >= 0 ? uri.substring(0, end) : uri;
+        int first = path.indexOf('/', 1);
+        int second = first > 0 ? path.indexOf('/', first + 1) : -1;
+        return second > 0 ? path.substring(0, second) : path;
+    }
+
+    private static final class ResolveStart implements GlobalFilter, Ordered {
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            // Same test the load balancer filter uses to decide whether it has work to do.
+            URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+            String schemePrefix = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_SCHEME_PREFIX_ATTR);
+            if (url != null && ("lb".equals(url.getScheme()) || "lb".equals(schemePrefix))) {
+                exchange.getAttributes().put(RESOLVE_START, System.nanoTime());
+            }
+            return chain.filter(exchange);
+        }
+
+        @Override
+        public int getOrder() {
+            return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+        }
+    }
+
+    private static final class ResolveEnd implements GlobalFilter, Ordered {
+
+        private final MeterRegistry registry;
+
+        ResolveEnd(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            Long start = exchange.getAttribute(RESOLVE_START);
+            if (start != null) {
+                Timer.builder("gateway.discovery.resolve")
+                        .description("Time to resolve an lb:// route to a service instance")
+                        .tag("route", GatewayMetrics.routeId(exchange))
+                        .register(registry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return chain.filter(exchange);
+        }
+
+        @Override
+        public int getOrder() {
+            return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+        }
+    }
+}
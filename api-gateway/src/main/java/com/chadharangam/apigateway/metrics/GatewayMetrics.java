@@ -0,0 +1,30 @@
+package com.chadharangam.apigateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/** Counters shared by the gateway's own filters. */
+@Component
+public class GatewayMetrics {
+
+    public static final String REJECTED = "gateway.requests.rejected";
+
+    private final MeterRegistry registry;
+
+    public GatewayMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Counts a request the gateway answered itself instead of routing, by route and reason. */
+    public void rejected(ServerWebExchange exchange, String reason) {
+        registry.counter(REJECTED, "route", routeId(exchange), "reason", reason).increment();
+    }
+
+    public static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "default";
+    }
+}
@@ -0,0 +1,67 @@
+package com.chadharangam.apigateway.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Gives every routed request an {@code X-Trace-Id}: the caller's, if it sent a sane one, or a
+ * new random id. It goes to the downstream service as a request header and back to the client
+ * as a response header, and requests slower than {@code gateway.slow-request-ms} are logged
+ * with it, so a slow call can be found in the service's logs too.
+ */
+@Component
+public class TraceIdFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceIdFilter.class);
+
+    public static final String HEADER = "X-Trace-Id";
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9-]{8,64}");
+
+    private final long slowRequestMs;
+
+    public TraceIdFilter(@Value("${gateway.slow-request-ms:1000}") long slowRequestMs) {
+        this.slowRequestMs = slowRequestMs;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String incoming = exchange.getRequest().getHeaders().getFirst(HEADER);
+        String traceId = incoming != null && VALID.matcher(incoming).matches() ? incoming : newTraceId();
+        exchange.getResponse().getHeaders().set(HEADER, traceId);
+        long start = System.nanoTime();
+
+        return chain.filter(exchange.mutate()
+                        .request(r -> r.headers(h -> h.set(HEADER, traceId)))
+                        .build())
+                .doFinally(signal -> {
+                    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                    if (elapsedMs >= slowRequestMs) {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        log.warn("Slow request {} {} route={} status={} {}ms trace={}",
+                                exchange.getRequest().getMethod(), exchange.getRequest().getURI().getPath(),
+                                GatewayMetrics.routeId(exchange), status != null ? status.value() : "-", elapsedMs, traceId);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+}
@@ -0,0 +1,56 @@
+package com.chadharangam.apigateway.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open WebSocket connections per route (the {@code /ws/**} notification route in practice) as
+ * the {@code gateway.websocket.connections.active} gauge. A proxied WebSocket's exchange
+ * completes only when the connection closes, so the count is what is open right now.
+ */
+@Component
+public class WebSocketConnections implements GlobalFilter, Ordered {
+
+    private final MeterRegistry registry;
+    private final Map<String, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    public WebSocketConnections(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!"websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return chain.filter(exchange);
+        }
+        AtomicInteger open = active.computeIfAbsent(GatewayMetrics.routeId(exchange), this::register);
+        open.incrementAndGet();
+        return chain.filter(exchange).doFinally(signal -> open.decrementAndGet());
+    }
+
+    // After authentication and rate limiting, so only connections actually proxied are counted.
+    @Override
+    public int getOrder() {
+        return 1;
+    }
+
+    private AtomicInteger register(String routeId) {
+        AtomicInteger open = new AtomicInteger();
+        Gauge.builder("gateway.websocket.connections.active", open, AtomicInteger::get)
+                .description("WebSocket connections currently proxied")
+                .tag("route", routeId)
+                .register(registry);
+        return open;
+    }
+}
@@ -0,0 +1,116 @@
+package com.chadharangam.apigateway.ratelimit;
+
+import com.chadharangam.apigateway.metrics.GatewayMetrics;
+import com.chadharangam.apigateway.security.JwtAuthFilter;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route, per-caller request limits. Runs after {@link JwtAuthFilter}, so authenticated
+ * callers are keyed by token subject and public routes (login, register, OAuth2) by client
+ * address. Limits come from {@code gateway.rate-limit.routes.<route id>.capacity} and
+ * {@code .refill-per-second}, falling back to {@code gateway.rate-limit.default.*}; a caller
+ * over the limit gets 429 with {@code Retry-After}.
+ *
+ * <p>With {@code gateway.rate-limit.share-across-replicas} each gateway enforces its share of
+ * the limit, split by the number of gateway instances registered in discovery.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final String PREFIX = "gateway.rate-limit.";
+
+    private final Environment env;
+    private final DiscoveryClient discovery;
+    private final GatewayMetrics metrics;
+    private final boolean enabled;
+    private final boolean shareAcrossReplicas;
+    private final String serviceId;
+    private final int maxKeys;
+    private final Map<String, TokenBuckets> routes = new ConcurrentHashMap<>();
+    private volatile int replicas = 1;
+
+    public RateLimitFilter(
+            Environment env,
+            DiscoveryClient discovery,
+            GatewayMetrics metrics,
+            @Value("${gateway.rate-limit.enabled:true}") boolean enabled,
+            @Value("${gateway.rate-limit.share-across-replicas:false}") boolean shareAcrossReplicas,
+            @Value("${spring.application.name:api-gateway}") String serviceId,
+            @Value("${gateway.rate-limit.max-keys:100000}") int maxKeys) {
+        this.env = env;
+        this.discovery = discovery;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.shareAcrossReplicas = shareAcrossReplicas;
+        this.serviceId = serviceId;
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) return chain.filter(exchange);
+
+        TokenBuckets buckets = routes.computeIfAbsent(GatewayMetrics.routeId(exchange), this::bucketsFor);
+        long waitNs = buckets.tryAcquire(callerOf(exchange), System.nanoTime());
+        if (waitNs == 0) return chain.filter(exchange);
+
+        metrics.rejected(exchange, "rate-limited");
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNs + 999_999_999))));
+        return exchange.getResponse().setComplete();
+    }
+
+    // Right after authentication, and like it ahead of the response cache.
+    @Override
+    public int getOrder() {
+        return JwtAuthFilter.ORDER + 1;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.sweep-ms:10000}")
+    public void sweep() {
+        if (shareAcrossReplicas) {
+            int live = Math.max(1, discovery.getInstances(serviceId).size());
+            if (live != replicas) {
+                replicas = live;
+                routes.values().forEach(b -> b.shareAcross(live));
+            }
+        }
+        long now = System.nanoTime();
+        routes.values().forEach(b -> b.sweep(now));
+    }
+
+    private TokenBuckets bucketsFor(String routeId) {
+        int capacity = env.getProperty(PREFIX + "routes." + routeId + ".capacity", Integer.class,
+                env.getProperty(PREFIX + "default.capacity", Integer.class, 50));
+        double refill = env.getProperty(PREFIX + "routes." + routeId + ".refill-per-second", Double.class,
+                env.getProperty(PREFIX + "default.refill-per-second", Double.class, 20.0));
+        TokenBuckets buckets = new TokenBuckets(capacity, refill, maxKeys);
+        buckets.shareAcross(replicas);
+        return buckets;
+    }
+
+    private static String callerOf(ServerWebExchange exchange) {
+        Claims claims = exchange.getAttribute(JwtAuthFilter.CLAIMS_ATTRIBUTE);
+        if (claims != null && claims.getSubject() != null) return claims.getSubject();
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? "ip:" + remote.getAddress().getHostAddress() : "ip:unknown";
+    }
+}
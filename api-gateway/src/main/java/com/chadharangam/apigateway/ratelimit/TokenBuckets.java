@@ -0,0 +1,73 @@
+package com.chadharangam.apigateway.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for one route, one per caller key. Each bucket is a single {@link AtomicLong}
+ * holding the time at which it will be full again (the GCRA form of a token bucket), so taking
+ * a token is one compare-and-set and a full bucket is indistinguishable from a missing one.
+ * That keeps memory bounded: {@link #sweep} drops every full bucket, and past {@code maxKeys}
+ * new callers share one overflow bucket until the next sweep.
+ */
+public class TokenBuckets {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+    private final int capacity;
+    private final double refillPerSecond;
+    private final int maxKeys;
+
+    private volatile long intervalNs;
+    private volatile long toleranceNs;
+
+    public TokenBuckets(int capacity, double refillPerSecond, int maxKeys) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new RuntimeException("Rate limit needs capacity >= 1 and refill-per-second > 0");
+        }
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.maxKeys = maxKeys;
+        shareAcross(1);
+    }
+
+    /** Gives this replica its share of the limit when {@code replicas} gateways enforce it. */
+    public void shareAcross(int replicas) {
+        int n = Math.max(1, replicas);
+        int burst = Math.max(1, (int) Math.ceil((double) capacity / n));
+        long interval = (long) Math.ceil(1e9 * n / refillPerSecond);
+        this.toleranceNs = interval * (burst - 1);
+        this.intervalNs = interval;
+    }
+
+    /** Takes a token for {@code key}: 0 if granted, otherwise nanoseconds until one is available. */
+    public long tryAcquire(String key, long nowNs) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() >= maxKeys ? overflow : buckets.computeIfAbsent(key, k -> new AtomicLong(nowNs));
+        }
+        long interval = intervalNs;
+        long tolerance = toleranceNs;
+        while (true) {
+            long fullAt = bucket.get();
+            long from = fullAt - nowNs > 0 ? fullAt : nowNs;
+            long wait = from - tolerance - nowNs;
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(fullAt, from + interval)) return 0;
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely. A request racing with the removal may spend
+     * a token from the dropped bucket, which at worst grants that caller one extra token.
+     */
+    public int sweep(long nowNs) {
+        int before = buckets.size();
+        buckets.values().removeIf(fullAt -> fullAt.get() - nowNs <= 0);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,109 @@
+package com.chadharangam.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * The caller's identity as plain request headers for the services behind the gateway, so none
+ * of them has to parse the token or ask user-service who is calling. The values are signed with
+ * {@code identity.secret} (a key the services share with the gateway, not the JWT key), and
+ * whatever a client sent under these names is always removed first, together with the
+ * markers services put on requests they forward to each other. The signature also covers the
+ * issue time, which the services hold to a short window so a captured set of headers cannot be
+ * replayed. Without a secret the headers are only removed, never added.
+ */
+@Component
+public class IdentityHeaders {
+
+    private static final Logger log = LoggerFactory.getLogger(IdentityHeaders.class);
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String USER_NAME = "X-User-Name";
+    public static final String USER_RATING = "X-User-Rating";
+    public static final String ISSUED_AT = "X-User-Issued-At";
+    public static final String SIGNATURE = "X-User-Signature";
+
+    // Set by a service on requests it forwards to a peer; never legitimate from a client.
+    static final List<String> SERVICE_HEADERS = List.of("X-Matchmaking-Forwarded", "X-Notification-Forwarded");
+
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public IdentityHeaders(@Value("${identity.secret:}") String secret) {
+        if (secret.isBlank()) {
+            log.warn("identity.secret is not set; downstream services will not receive caller identity");
+            this.key = null;
+            this.macs = null;
+        } else {
+            this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+            this.macs = ThreadLocal.withInitial(this::newMac);
+        }
+    }
+
+    /** Drops client-supplied identity and service headers and, for a verified caller, adds signed ones. */
+    public void apply(HttpHeaders headers, Claims claims) {
+        headers.remove(USER_ID);
+        headers.remove(USER_NAME);
+        headers.remove(USER_RATING);
+        headers.remove(ISSUED_AT);
+        headers.remove(SIGNATURE);
+        SERVICE_HEADERS.forEach(headers::remove);
+        if (key == null || claims == null || claims.getSubject() == null) return;
+
+        String id = Long.toString(playerIdOf(claims.getSubject()));
+        String name = URLEncoder.encode(claims.getSubject(), StandardCharsets.UTF_8);
+        Object rating = claims.get("rating");
+        String ratingValue = rating instanceof Number n ? Integer.toString(n.intValue()) : "";
+        String issuedAt = Long.toString(System.currentTimeMillis());
+
+        headers.set(USER_ID, id);
+        headers.set(USER_NAME, name);
+        if (!ratingValue.isEmpty()) headers.set(USER_RATING, ratingValue);
+        headers.set(ISSUED_AT, issuedAt);
+        headers.set(SIGNATURE, sign(id, name, ratingValue, issuedAt));
+    }
+
+    /**
+     * The player id the frontend derives from the token subject: 32-bit FNV-1a over the UTF-16
+     * code units, unsigned.
+     */
+    public static long playerIdOf(String subject) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < subject.length(); i++) {
+            hash ^= subject.charAt(i);
+            hash *= 16777619;
+        }
+        return Integer.toUnsignedLong(hash);
+    }
+
+    String sign(String id, String name, String rating, String issuedAt) {
+        byte[] mac = macs.get().doFinal((id + '\n' + name + '\n' + rating + '\n' + issuedAt)
+                .getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(mac, SIGNATURE_BYTES));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("HmacSHA256 unavailable", e);
+        }
+    }
+}
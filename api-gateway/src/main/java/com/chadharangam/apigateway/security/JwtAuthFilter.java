@@ -1,5 +1,7 @@
 package com.chadharangam.apigateway.security;
 
+import com.chadharangam.apigateway.metrics.GatewayMetrics;
+import io.jsonwebtoken.Claims;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -12,42 +14,66 @@ import reactor.core.publisher.Mono;
 @Component
 public class JwtAuthFilter implements GlobalFilter, Ordered {
 
+    /** Exchange attribute holding the verified claims, for filters that run later. */
+    public static final String CLAIMS_ATTRIBUTE = JwtAuthFilter.class.getName() + ".claims";
+
+    private final JwtUtil jwtUtil;
+    private final IdentityHeaders identity;
+    private final GatewayMetrics metrics;
+
+    public JwtAuthFilter(JwtUtil jwtUtil, IdentityHeaders identity, GatewayMetrics metrics) {
+        this.jwtUtil = jwtUtil;
+        this.identity = identity;
+        this.metrics = metrics;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
 
         String path = exchange.getRequest().getURI().getPath();
 
+        // Service-to-service endpoints (e.g. notification-service's move feed) are never public,
+        // not even through the discovery-locator routes.
+        if (path.contains("/internal/")) {
+            metrics.rejected(exchange, "internal");
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return exchange.getResponse().setComplete();
+        }
+
         // ✅ PUBLIC ENDPOINTS — MUST BE FIRST
         if (path.equals("/api/users/register")
                 || path.equals("/api/users/login")
                 || path.startsWith("/oauth2")
                 || path.startsWith("/login/oauth2")) {
-            return chain.filter(exchange);
+            return chain.filter(exchange.mutate()
+                    .request(r -> r.headers(h -> identity.apply(h, null)))
+                    .build());
         }
 
         String authHeader = exchange.getRequest()
                 .getHeaders()
                 .getFirst(HttpHeaders.AUTHORIZATION);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        Claims claims = jwtUtil.verify(authHeader);
+        if (claims == null) {
+            metrics.rejected(exchange, "unauthorized");
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
+        exchange.getAttributes().put(CLAIMS_ATTRIBUTE, claims);
 
-        String token = authHeader.substring(7);
-
-        try {
-            JwtUtil.validateToken(token);
-        } catch (Exception e) {
-            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-            return exchange.getResponse().setComplete();
-        }
-
-        return chain.filter(exchange);
+        // Services trust these instead of a playerId in the body.
+        return chain.filter(exchange.mutate()
+                .request(r -> r.headers(h -> identity.apply(h, claims)))
+                .build());
     }
 
+    // Ahead of the route filters, the response cache (-4) included, so cached answers still
+    // need a valid token.
+    public static final int ORDER = -10;
+
     @Override
     public int getOrder() {
-        return -1;
+        return ORDER;
     }
 }
@@ -1,32 +1,85 @@
 package com.chadharangam.apigateway.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Verifies bearer tokens. The signing key and parser are built once (the parser is immutable
+ * and thread-safe), and headers seen before are answered from a {@link VerifiedTokenCache}
+ * without repeating the HMAC check. A miss is a few microseconds of CPU and no I/O, so it is
+ * fine on the gateway's event loop.
+ */
 @Component
 public class JwtUtil {
 
-    private static String SECRET_KEY;
+    private static final String BEARER = "Bearer ";
 
-    @Value("${jwt.secret}")
-    public void setSecretKey(String secret) {
-        SECRET_KEY = secret;
+    private final JwtParser parser;
+    private final VerifiedTokenCache cache;
+    private final Counter cacheHits;
+    private final Timer valid;
+    private final Timer invalid;
+
+    public JwtUtil(
+            MeterRegistry registry,
+            @Value("${jwt.secret}") String secret,
+            @Value("${gateway.jwt.cache.size:65536}") int cacheSize,
+            @Value("${gateway.jwt.cache.ttl-ms:300000}") long cacheTtlMs) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes()))
+                .build();
+        this.cache = new VerifiedTokenCache(cacheSize, cacheTtlMs);
+        this.cacheHits = Counter.builder("gateway.jwt.cache.hits")
+                .description("Tokens answered from the verified-token cache")
+                .register(registry);
+        this.valid = validationTimer(registry, "valid");
+        this.invalid = validationTimer(registry, "invalid");
+    }
+
+    /** Claims of a valid token (signature and expiry checked); throws otherwise. */
+    public Claims validateToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private static Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    /**
+     * Claims for an {@code Authorization} header value, or {@code null} when it is missing,
+     * not a bearer token, or invalid.
+     */
+    public Claims verify(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER)) return null;
+        long now = System.currentTimeMillis();
+        Claims claims = cache.get(authorization, now);
+        if (claims != null) {
+            cacheHits.increment();
+            return claims;
+        }
+        long start = System.nanoTime();
+        try {
+            claims = validateToken(authorization.substring(BEARER.length()));
+        } catch (Exception e) {
+            invalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        valid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        cache.put(authorization, claims, now);
+        return claims;
     }
 
-    public static Claims validateToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Cache misses only: a full signature check.
+    private static Timer validationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("gateway.jwt.validation")
+                .description("Signature and expiry check of a token not in the cache")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
     }
 }
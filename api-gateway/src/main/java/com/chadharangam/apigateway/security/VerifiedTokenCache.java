@@ -0,0 +1,50 @@
+package com.chadharangam.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Authorization headers whose token already passed the signature check, with their claims.
+ * Direct-mapped: each header hashes to one slot and a newer token simply replaces the one
+ * there, so the memory is fixed and lookups take no locks. A hit compares the full header
+ * (the hash only picks the slot, so a forged token can never match a cached one) and
+ * allocates nothing. Entries expire with the token, and at the latest after {@code ttlMs}.
+ */
+public class VerifiedTokenCache {
+
+    private record Entry(String authorization, Claims claims, long expiresAtMs) {
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final long ttlMs;
+
+    public VerifiedTokenCache(int size, long ttlMs) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.ttlMs = ttlMs;
+    }
+
+    /** Claims cached for exactly this header, or {@code null}. */
+    public Claims get(String authorization, long nowMs) {
+        Entry e = slots.get(slot(authorization));
+        if (e == null || nowMs >= e.expiresAtMs() || !e.authorization().equals(authorization)) return null;
+        return e.claims();
+    }
+
+    public void put(String authorization, Claims claims, long nowMs) {
+        long expiresAt = nowMs + ttlMs;
+        Date exp = claims.getExpiration();
+        if (exp != null) expiresAt = Math.min(expiresAt, exp.getTime());
+        if (expiresAt <= nowMs) return;
+        slots.set(slot(authorization), new Entry(authorization, claims, expiresAt));
+    }
+
+    private int slot(String authorization) {
+        int h = authorization.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
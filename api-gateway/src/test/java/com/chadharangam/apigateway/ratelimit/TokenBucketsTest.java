@@ -0,0 +1,58 @@
+package com.chadharangam.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsTheBurstThenRefillsAtTheRate() {
+        TokenBuckets buckets = new TokenBuckets(3, 2, 100);
+        long t = 5 * SECOND;
+
+        for (int i = 0; i < 3; i++) assertEquals(0, buckets.tryAcquire("alice", t));
+        long wait = buckets.tryAcquire("alice", t);
+        assertEquals(SECOND / 2, wait);
+        assertEquals(0, buckets.tryAcquire("bob", t), "callers have their own buckets");
+
+        assertEquals(0, buckets.tryAcquire("alice", t + wait));
+        assertTrue(buckets.tryAcquire("alice", t + wait) > 0);
+    }
+
+    @Test
+    void sweepDropsOnlyFullBuckets() {
+        TokenBuckets buckets = new TokenBuckets(2, 1, 100);
+        buckets.tryAcquire("alice", 0);
+        buckets.tryAcquire("bob", 0);
+        buckets.tryAcquire("bob", 0);
+
+        assertEquals(1, buckets.sweep(SECOND));
+        assertEquals(1, buckets.size());
+        assertEquals(1, buckets.sweep(2 * SECOND));
+        assertEquals(0, buckets.size());
+    }
+
+    @Test
+    void callersPastMaxKeysShareOneBucket() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 1);
+        long t = System.nanoTime();
+        assertEquals(0, buckets.tryAcquire("alice", t));
+        assertEquals(0, buckets.tryAcquire("bob", t));
+        assertTrue(buckets.tryAcquire("carol", t) > 0);
+        assertEquals(1, buckets.size());
+    }
+
+    @Test
+    void replicasSplitTheLimit() {
+        TokenBuckets buckets = new TokenBuckets(4, 10, 100);
+        buckets.shareAcross(2);
+
+        assertEquals(0, buckets.tryAcquire("alice", 0));
+        assertEquals(0, buckets.tryAcquire("alice", 0));
+        assertEquals(SECOND / 5, buckets.tryAcquire("alice", 0));
+    }
+}
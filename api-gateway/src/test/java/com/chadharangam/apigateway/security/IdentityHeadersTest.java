@@ -0,0 +1,50 @@
+package com.chadharangam.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdentityHeadersTest {
+
+    @Test
+    void replacesClientHeadersWithSignedIdentity() {
+        IdentityHeaders identity = new IdentityHeaders("identity-secret");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdentityHeaders.USER_ID, "1");
+        headers.set(IdentityHeaders.SIGNATURE, "forged");
+        Claims claims = Jwts.claims().setSubject("alice");
+        claims.put("rating", 1450);
+
+        identity.apply(headers, claims);
+
+        assertEquals("2267157479", headers.getFirst(IdentityHeaders.USER_ID));
+        assertEquals("alice", headers.getFirst(IdentityHeaders.USER_NAME));
+        assertEquals("1450", headers.getFirst(IdentityHeaders.USER_RATING));
+        String issuedAt = headers.getFirst(IdentityHeaders.ISSUED_AT);
+        assertTrue(Math.abs(System.currentTimeMillis() - Long.parseLong(issuedAt)) < 60_000);
+        assertEquals(identity.sign("2267157479", "alice", "1450", issuedAt), headers.getFirst(IdentityHeaders.SIGNATURE));
+    }
+
+    @Test
+    void publicRequestsAndMissingSecretOnlyStrip() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdentityHeaders.USER_ID, "1");
+        headers.set(IdentityHeaders.ISSUED_AT, "0");
+        headers.set(IdentityHeaders.SIGNATURE, "forged");
+        headers.set("X-Matchmaking-Forwarded", "1");
+        new IdentityHeaders("identity-secret").apply(headers, null);
+        assertFalse(headers.containsKey(IdentityHeaders.USER_ID));
+        assertFalse(headers.containsKey(IdentityHeaders.ISSUED_AT));
+        assertFalse(headers.containsKey("X-Matchmaking-Forwarded"));
+
+        HttpHeaders unsigned = new HttpHeaders();
+        new IdentityHeaders("").apply(unsigned, Jwts.claims().setSubject("alice"));
+        assertNull(unsigned.getFirst(IdentityHeaders.SIGNATURE));
+    }
+}
@@ -0,0 +1,41 @@
+package com.chadharangam.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void hitsOnlyTheExactHeaderUntilItExpires() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16, 60_000);
+        Claims claims = Jwts.claims().setSubject("alice").setExpiration(new Date(20_000));
+
+        cache.put("Bearer a.b.c", claims, 10_000);
+
+        assertSame(claims, cache.get("Bearer a.b.c", 19_999));
+        assertNull(cache.get("Bearer a.b.d", 10_100));
+        assertNull(cache.get("Bearer a.b.c", 20_000), "token expired");
+    }
+
+    @Test
+    void ttlBoundsTokensThatLiveLonger() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16, 1_000);
+        cache.put("Bearer x", Jwts.claims().setSubject("bob"), 0);
+
+        assertNull(cache.get("Bearer x", 1_000));
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16, 1_000);
+        cache.put("Bearer y", Jwts.claims().setExpiration(new Date(5_000)), 10_000);
+
+        assertNull(cache.get("Bearer y", 0));
+    }
+}
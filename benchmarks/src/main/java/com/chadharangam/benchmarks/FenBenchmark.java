@@ -0,0 +1,65 @@
+package com.chadharangam.benchmarks;
+
+import com.chadharangam.gameservice.engine.Fen;
+import com.chadharangam.gameservice.engine.MoveGenerator;
+import com.chadharangam.gameservice.engine.Piece;
+import com.chadharangam.gameservice.engine.Position;
+import com.chadharangam.gameservice.engine.Square;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** FEN codec: full parse, full serialization and the per-move incremental update. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    private static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private Position middlegame;
+    private String beforeMove;
+    private Position afterMove;
+    private int move;
+
+    @Setup
+    public void setUp() {
+        middlegame = Fen.parse(MIDDLEGAME);
+        beforeMove = MIDDLEGAME;
+        afterMove = Fen.parse(MIDDLEGAME);
+        move = MoveGenerator.findLegal(afterMove, Square.parse("e5"), Square.parse("f7"), Piece.QUEEN);
+        afterMove.play(move);
+    }
+
+    @Benchmark
+    public Position parseStart() {
+        return Fen.parse(Position.START_FEN);
+    }
+
+    @Benchmark
+    public Position parseMiddlegame() {
+        return Fen.parse(MIDDLEGAME);
+    }
+
+    @Benchmark
+    public String toFen() {
+        return Fen.toFen(middlegame);
+    }
+
+    @Benchmark
+    public String incrementalUpdate() {
+        return Fen.update(beforeMove, afterMove, move);
+    }
+}
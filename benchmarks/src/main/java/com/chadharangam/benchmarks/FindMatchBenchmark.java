@@ -0,0 +1,202 @@
+package com.chadharangam.benchmarks;
+
+import com.chadharangam.matchmakingservice.service.GameCreator;
+import com.chadharangam.matchmakingservice.service.MatchJournal;
+import com.chadharangam.matchmakingservice.service.MatchmakingService;
+import com.chadharangam.matchmakingservice.service.RatingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MatchmakingService under contention. game-service and user-service are stubbed with
+ * in-process responses so the figures are matchmaking's own cost. Each thread polls on behalf
+ * of a fixed set of players, as browsers do, while a background thread runs the matching
+ * sweep; {@code sweep} measures one pass over a pool of waiting players, up to handing the
+ * pairings to the asynchronous game creator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindMatchBenchmark {
+
+    private static final int PLAYERS_PER_THREAD = 512;
+
+    private MatchmakingService service;
+    private Thread sweeper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = newService();
+        sweeper = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                service.sweep();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "sweeper");
+        sweeper.setDaemon(true);
+        sweeper.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sweeper.interrupt();
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        long base;
+        int next;
+
+        @Setup
+        public void setUp(ThreadParams threads) {
+            base = (long) threads.getThreadIndex() << 32;
+        }
+
+        Long nextId() {
+            next = (next + 1) % PLAYERS_PER_THREAD;
+            return base + next;
+        }
+    }
+
+    /** A fresh pool of 10,000 waiters spread over 1,000 rating points. */
+    @State(Scope.Thread)
+    public static class FullPool {
+        MatchmakingService service;
+
+        @Setup(Level.Invocation)
+        public void fill() {
+            service = newService();
+            for (long id = 1; id <= 10_000; id++) {
+                service.findMatch(id, "player" + id, "online", "BLITZ");
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Map<String, Object> findMatch(Player player) {
+        return poll(player);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Map<String, Object> findMatchContended(Player player) {
+        return poll(player);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Map<String, Object> findMatchContended32(Player player) {
+        return poll(player);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void sweep(FullPool pool) {
+        pool.service.sweep();
+    }
+
+    private Map<String, Object> poll(Player player) {
+        Long playerId = player.nextId();
+        return service.findMatch(playerId, "player" + playerId, "online", "BLITZ");
+    }
+
+    private static final RestTemplate STUB = stub();
+    // One creator thread for every service instance, as in a running matchmaking-service.
+    private static final GameCreator CREATOR = new GameCreator(STUB, new SimpleMeterRegistry(), "http://game-service", 256, 10_000);
+
+    private static MatchmakingService newService() {
+        return new MatchmakingService(CREATOR, new RatingCache(STUB, "http://user-service", 600_000, 100_000),
+                MatchJournal.disabled(), new SimpleMeterRegistry(), 50, 25, 800, 600_000);
+    }
+
+    private static RestTemplate stub() {
+        AtomicLong gameIds = new AtomicLong();
+        RestTemplate stub = new RestTemplate();
+        stub.getInterceptors().add((request, body, execution) -> {
+            String path = request.getURI().getPath();
+            if (path.endsWith("/rating")) {
+                // Deterministic spread of ratings between 1000 and 2000.
+                return new JsonResponse("{\"eloRating\":" + (1000 + Math.floorMod(path.hashCode(), 1000)) + "}");
+            }
+            // create-batch: one game per pairing in the request body.
+            String pairs = new String(body, StandardCharsets.UTF_8);
+            StringJoiner games = new StringJoiner(",", "[", "]");
+            for (int i = pairs.indexOf("whitePlayerId"); i >= 0; i = pairs.indexOf("whitePlayerId", i + 1)) {
+                games.add("{\"id\":" + gameIds.incrementAndGet() + "}");
+            }
+            return new JsonResponse(games.toString());
+        });
+        return stub;
+    }
+
+    private static final class JsonResponse implements ClientHttpResponse {
+
+        private final byte[] body;
+
+        JsonResponse(String json) {
+            this.body = json.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public String getStatusText() {
+            return "OK";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
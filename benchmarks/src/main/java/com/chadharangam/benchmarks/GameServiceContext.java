@@ -0,0 +1,53 @@
+package com.chadharangam.benchmarks;
+
+import com.chadharangam.gameservice.GameServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Boots game-service against an in-memory H2 database standing in for MySQL. */
+final class GameServiceContext {
+
+    /** Ruy Lopez, 20 plies: no captures, no repetitions, so every game stays ONGOING. */
+    static final String[] OPENING = {
+            "e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6", "b5a4", "g8f6", "e1g1", "f8e7",
+            "f1e1", "b7b5", "a4b3", "d7d6", "c2c3", "e8g8", "h2h3", "c6a5", "b3c2", "c7c5"
+    };
+
+    static final long WHITE = 1L;
+    static final long BLACK = 2L;
+
+    private GameServiceContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        return start(new Class<?>[0], extraProperties);
+    }
+
+    /** With extra configuration classes alongside game-service's own. */
+    static ConfigurableApplicationContext start(Class<?>[] extraSources, String... extraProperties) {
+        // Passed as command-line arguments so they override game-service's application.properties.
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.enabled=false",
+                "--game.notify.url=",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(GameServiceApplication.class)
+                .sources(extraSources)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,88 @@
+package com.chadharangam.benchmarks;
+
+import com.chadharangam.gameservice.entity.Game;
+import com.chadharangam.gameservice.service.GameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameService.makeMove end to end: cache, rules engine, FEN update and write-behind flushes
+ * into H2. Each thread plays its own games through a fixed opening and starts a new game at
+ * the end, so game creation is amortised into the per-move figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MakeMoveBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private GameService service;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = GameServiceContext.start();
+        service = context.getBean(GameService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        Long gameId;
+        int ply = GameServiceContext.OPENING.length;
+
+        String next(GameService service) {
+            if (ply == GameServiceContext.OPENING.length) {
+                gameId = service.createGame(GameServiceContext.WHITE, GameServiceContext.BLACK).getId();
+                ply = 0;
+            }
+            return GameServiceContext.OPENING[ply++];
+        }
+
+        Long mover() {
+            return ply % 2 == 1 ? GameServiceContext.WHITE : GameServiceContext.BLACK;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Game makeMove(Player player) {
+        String uci = player.next(service);
+        return service.makeMove(player.gameId, player.mover(), uci.substring(0, 2), uci.substring(2), null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Game makeMoveContended(Player player) {
+        String uci = player.next(service);
+        return service.makeMove(player.gameId, player.mover(), uci.substring(0, 2), uci.substring(2), null);
+    }
+
+    /** Same work routed through the single-writer lanes, as the controller does. */
+    @Benchmark
+    @Threads(8)
+    public Game submitMoveContended(Player player) {
+        String uci = player.next(service);
+        return service.submitMove(player.gameId, player.mover(), uci.substring(0, 2), uci.substring(2), null).join();
+    }
+}
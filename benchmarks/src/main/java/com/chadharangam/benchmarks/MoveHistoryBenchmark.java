@@ -0,0 +1,83 @@
+package com.chadharangam.benchmarks;
+
+import com.chadharangam.gameservice.cache.GameCache;
+import com.chadharangam.gameservice.entity.Move;
+import com.chadharangam.gameservice.service.GameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/games/{id}/moves for the three storage states a game can be in: moves still
+ * pending in the write-behind cache, moves flushed to rows, and a finished game's archive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveHistoryBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private GameService service;
+
+    private Long pendingGame;
+    private Long flushedGame;
+    private Long archivedGame;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // Flushes happen only when this benchmark asks for them.
+        context = GameServiceContext.start("game.cache.flush-interval-ms=3600000");
+        service = context.getBean(GameService.class);
+        GameCache cache = context.getBean(GameCache.class);
+
+        flushedGame = play(GameServiceContext.OPENING);
+        cache.flush();
+        pendingGame = play(GameServiceContext.OPENING);
+        archivedGame = play("f2f3", "e7e5", "g2g4", "d8h4"); // fool's mate: finished and archived
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Move> pendingInCache() {
+        return service.getMoveHistory(pendingGame);
+    }
+
+    @Benchmark
+    public List<Move> flushedRows() {
+        return service.getMoveHistory(flushedGame);
+    }
+
+    @Benchmark
+    public List<Move> finishedArchive() {
+        return service.getMoveHistory(archivedGame);
+    }
+
+    private Long play(String... line) {
+        Long gameId = service.createGame(GameServiceContext.WHITE, GameServiceContext.BLACK).getId();
+        for (int i = 0; i < line.length; i++) {
+            Long player = i % 2 == 0 ? GameServiceContext.WHITE : GameServiceContext.BLACK;
+            service.makeMove(gameId, player, line[i].substring(0, 2), line[i].substring(2), null);
+        }
+        return gameId;
+    }
+}
@@ -0,0 +1,69 @@
+// Binary move stream from notification-service (/stream/moves). Each frame holds one or more
+// consecutive moves of one game:
+//   varint gameId, varint count, then per move: u16 move (big-endian), varint ply, varint clockMs + 1
+// The move is game-service's engine encoding: bits 0-5 from, 6-11 to (a1 = 0, h8 = 63), 12-15 flags.
+
+const PROMOTIONS = "nbrq";
+
+function squareName(square) {
+  return String.fromCharCode(97 + (square & 7)) + String((square >> 3) + 1);
+}
+
+function readVarint(bytes, cursor) {
+  let value = 0;
+  let scale = 1;
+  for (;;) {
+    const b = bytes[cursor.pos++];
+    value += (b & 0x7f) * scale; // no bit shifts: game ids may exceed 32 bits
+    if (b < 0x80) return value;
+    scale *= 128;
+  }
+}
+
+export function decodeMoveFrame(buffer) {
+  const bytes = new Uint8Array(buffer);
+  const cursor = { pos: 0 };
+  const gameId = readVarint(bytes, cursor);
+  const count = readVarint(bytes, cursor);
+  const moves = [];
+  for (let i = 0; i < count; i++) {
+    const move = (bytes[cursor.pos] << 8) | bytes[cursor.pos + 1];
+    cursor.pos += 2;
+    const ply = readVarint(bytes, cursor);
+    const clockMs = readVarint(bytes, cursor) - 1;
+    const flags = move >> 12;
+    moves.push({
+      from: squareName(move & 0x3f),
+      to: squareName((move >> 6) & 0x3f),
+      promotion: flags & 8 ? PROMOTIONS[flags & 3] : undefined,
+      ply,
+      clockMs: clockMs < 0 ? null : clockMs,
+    });
+  }
+  return { gameId, moves };
+}
+
+// Opens the stream for one game; onMoves gets the decoded moves of every frame. Reconnects
+// after a drop until the returned function is called.
+export function openMoveStream(gameId, onMoves, onStatus) {
+  let socket;
+  let closed = false;
+
+  const connect = () => {
+    const token = encodeURIComponent(localStorage.getItem("token") || "");
+    socket = new WebSocket(`ws://localhost:8084/stream/moves?gameId=${gameId}&access_token=${token}`);
+    socket.binaryType = "arraybuffer";
+    socket.onopen = () => onStatus?.(true);
+    socket.onmessage = (msg) => onMoves(decodeMoveFrame(msg.data).moves);
+    socket.onclose = () => {
+      onStatus?.(false);
+      if (!closed) setTimeout(connect, 5000);
+    };
+  };
+
+  connect();
+  return () => {
+    closed = true;
+    socket?.close();
+  };
+}
@@ -6,6 +6,7 @@ import SockJS from "sockjs-client";
 import { Client } from "@stomp/stompjs";
 
 import api from "../api/axios";
+import { openMoveStream } from "../api/moveStream";
 import useChessTimer from "../hooks/useChessTimer";
 import { getUser } from "../auth/user";
 
@@ -19,6 +20,14 @@ function stablePlayerIdFromSub(sub) {
   return hash >>> 0;
 }
 
+// "binary" switches live moves to notification-service's compact /stream/moves frames.
+const MOVE_TRANSPORT = localStorage.getItem("moveTransport") === "binary" ? "binary" : "stomp";
+
+// Plies played so far, from the FEN counters (the board is rebuilt from FEN, so history() is not complete).
+function pliesPlayed(game) {
+  return (game.moveNumber() - 1) * 2 + (game.turn() === "b" ? 1 : 0);
+}
+
 function readNumber(key) {
   const v = localStorage.getItem(key);
   if (v == null) return null;
@@ -145,13 +154,45 @@ export default function Game() {
   }, [parsedGameId]);
 
   useEffect(() => {
+    if (!parsedGameId || MOVE_TRANSPORT !== "binary") return;
+
+    return openMoveStream(
+      parsedGameId,
+      (moves) => {
+        clearSelection();
+        setGame((prev) => {
+          let next = prev;
+          for (const m of moves) {
+            // Our own moves come back too, and are already on the board; a gap is left to polling.
+            if (m.ply !== pliesPlayed(next) + 1) continue;
+            try {
+              const board = new Chess(next.fen());
+              if (!board.move({ from: m.from, to: m.to, promotion: m.promotion })) break;
+              next = board;
+            } catch (e) {
+              console.error("Failed to apply streamed move", e);
+              break;
+            }
+          }
+          return next;
+        });
+      },
+      setIsSocketConnected
+    );
+  }, [parsedGameId]);
+
+  useEffect(() => {
+    if (!parsedGameId || MOVE_TRANSPORT !== "stomp") return;
+
     const client = new Client({
       webSocketFactory: () => new SockJS("http://localhost:8084/ws"),
+      connectHeaders: { Authorization: `Bearer ${localStorage.getItem("token") || ""}` },
       reconnectDelay: 5000,
       onConnect: () => {
         setIsSocketConnected(true);
         clientRef.current = client;
-        client.subscribe("/topic/game", (msg) => {
+        // Only this game's moves, published by game-service once it has accepted them.
+        client.subscribe(`/topic/game/${parsedGameId}`, (msg) => {
           let event;
           try {
             event = JSON.parse(msg.body);
@@ -159,11 +200,9 @@ export default function Game() {
             console.warn("Bad WS message", msg.body);
             return;
           }
-          if (event?.gameId == null) return;
-          if (Number(event.gameId) !== parsedGameId) return;
-          if (!event.from || !event.to) return;
+          if (!event?.from || !event?.to) return;
 
-          // Ignore our own broadcast to avoid flipping turns incorrectly.
+          // Our own moves come back too; they are already on the board.
           if (event.playerId != null && Number(event.playerId) === myPlayerId) {
             return;
           }
@@ -266,21 +305,6 @@ export default function Game() {
           from,
           to,
         });
-
-        // Broadcast move so opponent updates immediately.
-        const client = clientRef.current;
-        if (client?.connected) {
-          client.publish({
-            destination: "/app/move",
-            body: JSON.stringify({
-              gameId: parsedGameId,
-              playerId: myPlayerId,
-              from,
-              to,
-              fen: null,
-            }),
-          });
-        }
       } catch (e) {
         // Roll back if backend rejects move.
         try {
@@ -20,59 +20,89 @@ export default function Matchmaking() {
   useEffect(() => {
     let cancelled = false;
     let timer;
+    const abort = new AbortController();
 
-    const findMatch = async () => {
+    const onMatched = (data, playerId) => {
+      const gameId = data?.gameId ?? data?.id;
+      if (!gameId) return;
+      // Persist ids so Game screen can figure out side/turn.
+      localStorage.setItem(`game:${gameId}:me`, String(playerId));
+      if (data?.whitePlayerId != null) {
+        localStorage.setItem(`game:${gameId}:whitePlayerId`, String(data.whitePlayerId));
+      }
+      if (data?.blackPlayerId != null) {
+        localStorage.setItem(`game:${gameId}:blackPlayerId`, String(data.blackPlayerId));
+      }
+      if (!cancelled) {
+        navigate(`/game/${gameId}?time=${encodeURIComponent(time)}`);
+      }
+    };
+
+    // Enqueue once and wait for the server to push the match. EventSource cannot send the
+    // Authorization header the gateway requires, so the stream is read through fetch.
+    const waitForMatch = async () => {
       try {
         localStorage.setItem("selectedMode", mode);
         localStorage.setItem("selectedTime", time);
 
         const user = getUser();
         const playerId = stablePlayerIdFromSub(user?.sub);
-
-        const res = await api.post("/api/matchmaking/find", {
-          playerId,
+        const params = new URLSearchParams({
+          playerId: String(playerId),
+          username: user?.sub ?? "",
           mode,
           timeControl: time,
         });
 
-        const gameId = res?.data?.gameId ?? res?.data?.id;
-        if (gameId) {
-          // Persist ids so Game screen can figure out side/turn.
-          localStorage.setItem(`game:${gameId}:me`, String(playerId));
-          if (res?.data?.whitePlayerId != null) {
-            localStorage.setItem(
-              `game:${gameId}:whitePlayerId`,
-              String(res.data.whitePlayerId)
-            );
-          }
-          if (res?.data?.blackPlayerId != null) {
-            localStorage.setItem(
-              `game:${gameId}:blackPlayerId`,
-              String(res.data.blackPlayerId)
-            );
-          }
+        const res = await fetch(`${api.defaults.baseURL}/api/matchmaking/events?${params}`, {
+          headers: {
+            Accept: "text/event-stream",
+            Authorization: `Bearer ${localStorage.getItem("token")}`,
+          },
+          signal: abort.signal,
+        });
+        if (!res.ok || !res.body) throw new Error(`Matchmaking stream failed: ${res.status}`);
 
-          if (!cancelled) {
-            navigate(`/game/${gameId}?time=${encodeURIComponent(time)}`);
-          }
-          return;
-        }
+        const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = "";
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value.replace(/\r\n/g, "\n");
+
+          let end;
+          while ((end = buffer.indexOf("\n\n")) >= 0) {
+            const block = buffer.slice(0, end);
+            buffer = buffer.slice(end + 2);
 
-        if (!cancelled) {
-          timer = setTimeout(findMatch, 1200);
+            let event = "message";
+            const data = [];
+            for (const line of block.split("\n")) {
+              if (line.startsWith("event:")) event = line.slice(6).trim();
+              else if (line.startsWith("data:")) data.push(line.slice(5).trimStart());
+            }
+            if (event === "matched") {
+              onMatched(JSON.parse(data.join("\n")), playerId);
+              return;
+            }
+          }
         }
       } catch (e) {
+        if (cancelled) return;
         console.error("Matchmaking failed", e);
-        if (!cancelled) {
-          timer = setTimeout(findMatch, 2000);
-        }
+      }
+
+      // The stream ended without a match (timeout or restart): reconnect, keeping our place.
+      if (!cancelled) {
+        timer = setTimeout(waitForMatch, 1000);
       }
     };
 
-    findMatch();
+    waitForMatch();
 
     return () => {
       cancelled = true;
+      abort.abort();
       if (timer) clearTimeout(timer);
     };
   }, [mode, time, navigate]);
@@ -1,2 +1,23 @@
 CREATE DATABASE IF NOT EXISTS chess_user_db;
 CREATE DATABASE IF NOT EXISTS chess_game_db;
+
+-- game-service: moves table with pooled ids and the (game_id, move_number) index.
+-- Hibernate (ddl-auto=update) leaves existing tables alone, so these definitions win on fresh volumes.
+-- Existing databases: run the scripts in migrations/ once, in order.
+CREATE TABLE IF NOT EXISTS chess_game_db.moves (
+    id BIGINT NOT NULL,
+    game_id BIGINT,
+    from_square VARCHAR(2),
+    to_square VARCHAR(2),
+    move_number INT NOT NULL,
+    packed_move SMALLINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_moves_game_move UNIQUE (game_id, move_number)
+);
+
+-- Table-backed sequence for Move ids (MySQL has no native sequences); Hibernate reserves 50 ids per round trip.
+CREATE TABLE IF NOT EXISTS chess_game_db.move_seq (
+    next_val BIGINT
+);
+INSERT INTO chess_game_db.move_seq (next_val)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM chess_game_db.move_seq);
@@ -0,0 +1,26 @@
+-- One-off migration for chess_game_db databases created before Move ids were pooled.
+-- Run once against an existing database: mysql -u root -p chess_game_db < 005-moves-batching.sql
+-- Safe to run again, or after game-service (ddl-auto=update) has already started once.
+
+-- Move ids are no longer AUTO_INCREMENT; Hibernate allocates them from move_seq.
+ALTER TABLE moves MODIFY id BIGINT NOT NULL;
+
+-- Unique per game ply; also the index behind findByGameIdOrderByMoveNumberAsc.
+-- game-service creates it on startup, so add it only when information_schema lacks it.
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.TABLE_CONSTRAINTS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'moves' AND CONSTRAINT_NAME = 'uk_moves_game_move') = 0,
+    'ALTER TABLE moves ADD CONSTRAINT uk_moves_game_move UNIQUE (game_id, move_number)',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Start the sequence above every id handed out by AUTO_INCREMENT. Move.id uses Hibernate's
+-- pooled optimizer (allocationSize = 50), which reads the stored value as the top of a block
+-- and hands out the 49 ids below it first; seeding MAX(id) + 1 would reissue existing ids.
+CREATE TABLE IF NOT EXISTS move_seq (
+    next_val BIGINT
+);
+DELETE FROM move_seq;
+INSERT INTO move_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM moves;
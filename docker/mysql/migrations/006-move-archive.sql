@@ -0,0 +1,27 @@
+-- One-off migration for chess_game_db databases created before finished games were archived.
+-- Run once against an existing database: mysql -u root -p chess_game_db < 006-move-archive.sql
+-- Safe to run again, or after game-service (ddl-auto=update) has already added the columns:
+-- MySQL has no ADD COLUMN IF NOT EXISTS, so each step checks information_schema first.
+
+-- 16-bit engine encoding of each move (from | to << 6 | flags << 12); NULL on older rows.
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.COLUMNS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'moves' AND COLUMN_NAME = 'packed_move') = 0,
+    'ALTER TABLE moves ADD COLUMN packed_move SMALLINT NULL',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ALTER TABLE moves MODIFY from_square VARCHAR(2), MODIFY to_square VARCHAR(2);
+
+-- Finished games keep their whole move list here and no rows in moves.
+-- Games finished before this migration keep their rows; the history endpoint reads either form.
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.COLUMNS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'games' AND COLUMN_NAME = 'archive') = 0,
+    'ALTER TABLE games ADD COLUMN archive BLOB NULL',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,24 @@
+-- One-off migration for chess_game_db databases created before positions were hashed.
+-- Run once against an existing database: mysql -u root -p chess_game_db < 007-position-hash.sql
+-- Safe to run again, or after game-service (ddl-auto=update) has already added the column:
+-- MySQL has no ADD COLUMN IF NOT EXISTS, so each step checks information_schema first.
+
+-- Zobrist hash of the current position. Left NULL on old rows; game-service fills it in
+-- the first time it loads an ONGOING game.
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.COLUMNS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'games' AND COLUMN_NAME = 'position_hash') = 0,
+    'ALTER TABLE games ADD COLUMN position_hash BIGINT NULL',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.STATISTICS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'games' AND INDEX_NAME = 'idx_games_position_hash') = 0,
+    'CREATE INDEX idx_games_position_hash ON games (position_hash)',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,22 @@
+-- One-off migration for chess_game_db databases created before server-side clocks.
+-- Run once against an existing database: mysql -u root -p chess_game_db < 008-game-clocks.sql
+-- Safe to run again, or after game-service (ddl-auto=update) has already added some columns:
+-- MySQL has no ADD COLUMN IF NOT EXISTS, so only the columns information_schema lacks are added.
+
+-- All NULL for untimed games (including every game created before this migration).
+SELECT GROUP_CONCAT(CONCAT('ADD COLUMN ', c.name, ' ', c.definition) SEPARATOR ', ') INTO @missing
+FROM (
+    SELECT 'time_control' AS name, 'VARCHAR(255) NULL' AS definition
+    UNION ALL SELECT 'white_time_ms', 'BIGINT NULL'
+    UNION ALL SELECT 'black_time_ms', 'BIGINT NULL'
+    UNION ALL SELECT 'increment_ms', 'BIGINT NULL'
+    UNION ALL SELECT 'last_move_at', 'BIGINT NULL'
+) c
+WHERE NOT EXISTS (
+    SELECT 1 FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'games' AND COLUMN_NAME = c.name);
+
+SET @ddl = IF(@missing IS NULL, 'DO 0', CONCAT('ALTER TABLE games ', @missing));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
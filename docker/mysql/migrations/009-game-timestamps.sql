@@ -0,0 +1,20 @@
+-- One-off migration for chess_game_db databases created before games recorded when they
+-- started and ended (used for Last-Modified on finished games).
+-- Run once against an existing database: mysql -u root -p chess_game_db < 009-game-timestamps.sql
+-- Safe to run again, or after game-service (ddl-auto=update) has already added some columns:
+-- MySQL has no ADD COLUMN IF NOT EXISTS, so only the columns information_schema lacks are added.
+
+-- Epoch millis; left NULL on older games, which then send Last-Modified only if they were timed.
+SELECT GROUP_CONCAT(CONCAT('ADD COLUMN ', c.name, ' ', c.definition) SEPARATOR ', ') INTO @missing
+FROM (
+    SELECT 'created_at' AS name, 'BIGINT NULL' AS definition
+    UNION ALL SELECT 'finished_at', 'BIGINT NULL'
+) c
+WHERE NOT EXISTS (
+    SELECT 1 FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'games' AND COLUMN_NAME = c.name);
+
+SET @ddl = IF(@missing IS NULL, 'DO 0', CONCAT('ALTER TABLE games ', @missing));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -1,14 +1,35 @@
 package com.chadharangam.gameservice;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class GameServiceApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(GameServiceApplication.class, args);
     }
+
+    // Resolves service names (http://notification-service) through Eureka. With timeouts, so a
+    // hung notification-service cannot hold the move publisher's thread for ever.
+    // Not from RestTemplateBuilder: slice tests such as @DataJpaTest load this class without it.
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate(
+            @Value("${game.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${game.http.read-timeout-ms:5000}") int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requests = new SimpleClientHttpRequestFactory();
+        requests.setConnectTimeout(connectTimeoutMs);
+        requests.setReadTimeout(readTimeoutMs);
+        return new RestTemplate(requests);
+    }
 }
@@ -0,0 +1,56 @@
+package com.chadharangam.gameservice.cache;
+
+import com.chadharangam.gameservice.entity.Game;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finished, archived games kept in memory after their first read. Such a game can never change
+ * again, so entries are never invalidated, only pushed out least recently used first. Each one
+ * is a detached {@link Game} whose archive column holds the whole move list at about two bytes
+ * per ply, so both the game and its moves are served without touching MySQL.
+ */
+@Component
+public class FinishedGames {
+
+    private final Map<Long, Game> games;
+    private final Counter hits;
+    private final Counter misses;
+
+    public FinishedGames(
+            MeterRegistry registry,
+            @Value("${game.finished-cache.max-size:50000}") int maxSize) {
+        this.games = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Game> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = registry.counter("game.finished-cache.requests", "result", "hit");
+        this.misses = registry.counter("game.finished-cache.requests", "result", "miss");
+    }
+
+    /** The cached game, or {@code null}. Callers must not modify it. */
+    public Game get(Long gameId) {
+        Game game;
+        synchronized (games) {
+            game = games.get(gameId);
+        }
+        (game != null ? hits : misses).increment();
+        return game;
+    }
+
+    /** Keeps {@code game} if it is finished and archived; anything else is ignored. */
+    public void offer(Game game) {
+        if (game == null || game.getId() == null || "ONGOING".equals(game.getStatus()) || game.getArchive() == null) return;
+        Game copy = game.snapshot();
+        synchronized (games) {
+            games.put(copy.getId(), copy);
+        }
+    }
+}
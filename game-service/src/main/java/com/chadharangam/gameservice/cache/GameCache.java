@@ -0,0 +1,426 @@
+package com.chadharangam.gameservice.cache;
+
+import com.chadharangam.gameservice.engine.Fen;
+import com.chadharangam.gameservice.engine.GameArchive;
+import com.chadharangam.gameservice.engine.MoveGenerator;
+import com.chadharangam.gameservice.engine.Piece;
+import com.chadharangam.gameservice.engine.Position;
+import com.chadharangam.gameservice.engine.PositionHistory;
+import com.chadharangam.gameservice.engine.Square;
+import com.chadharangam.gameservice.entity.Game;
+import com.chadharangam.gameservice.entity.Move;
+import com.chadharangam.gameservice.repository.GameRepository;
+import com.chadharangam.gameservice.repository.MoveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot cache of ONGOING games. Moves are applied to the cached {@link GameState} and written
+ * to MySQL in batches every {@code game.cache.flush-interval-ms}; finished games are compacted
+ * into their archive column and dropped immediately. All writes go through {@link #writeLock}
+ * so a late background flush can never overwrite a newer snapshot of the same game.
+ */
+@Component
+public class GameCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GameCache.class);
+
+    private static final String LEGACY_SEPARATOR = " | ";
+
+    private final GameRepository gameRepo;
+    private final MoveRepository moveRepo;
+    private final TransactionOperations tx;
+
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+
+    private final Map<Long, GameState> games = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter idleEvictions;
+    private final Counter sizeEvictions;
+    private final Counter flushFailures;
+    private final Counter flushConflicts;
+    private final Timer flushLag;
+
+    public GameCache(
+            GameRepository gameRepo,
+            MoveRepository moveRepo,
+            TransactionOperations tx,
+            MeterRegistry registry,
+            @Value("${game.cache.max-size:10000}") int maxSize,
+            @Value("${game.cache.idle-timeout-ms:600000}") long idleTimeoutMs) {
+        this.gameRepo = gameRepo;
+        this.moveRepo = moveRepo;
+        this.tx = tx;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+
+        this.hits = registry.counter("game.cache.requests", "result", "hit");
+        this.misses = registry.counter("game.cache.requests", "result", "miss");
+        this.idleEvictions = registry.counter("game.cache.evictions", "reason", "idle");
+        this.sizeEvictions = registry.counter("game.cache.evictions", "reason", "size");
+        this.flushFailures = registry.counter("game.cache.flush.failures");
+        this.flushConflicts = registry.counter("game.cache.flush.conflicts");
+        this.flushLag = Timer.builder("game.cache.flush.lag")
+                .description("Time from a game becoming dirty until it is written to MySQL")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        registry.gaugeMapSize("game.cache.size", List.of(), games);
+    }
+
+    /** Cached state if the game is already hot, otherwise {@code null}. Does not touch MySQL. */
+    public GameState peek(Long gameId) {
+        return games.get(gameId);
+    }
+
+    /**
+     * Returns the cached state of an ONGOING game, loading it on a miss.
+     * Callers must synchronize on the state and re-check {@link GameState#isEvicted()}.
+     */
+    public GameState getOngoing(Long gameId) {
+        GameState state = games.get(gameId);
+        if (state != null) {
+            hits.increment();
+            state.touch();
+            return state;
+        }
+        misses.increment();
+
+        Game game = gameRepo.findById(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+        if (!"ONGOING".equals(game.getStatus())) {
+            throw new RuntimeException("Game is finished");
+        }
+
+        if (game.getPlyCount() == 0 && !Position.START_FEN.equals(game.getFen())) {
+            // Rows written before the ply counter existed: backfill it once.
+            game.setPlyCount((int) moveRepo.countByGameId(gameId));
+        }
+
+        GameState loaded = load(game);
+        GameState raced = games.putIfAbsent(gameId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    /** Seeds the cache with a freshly created (already persisted) game. */
+    public GameState add(Game game) {
+        Position position = Fen.parse(game.getFen());
+        PositionHistory history = new PositionHistory();
+        history.push(position.hash(), position.halfmoveClock());
+        GameState state = new GameState(game, position, history);
+        games.put(game.getId(), state);
+        return state;
+    }
+
+    /** Writes a finished game synchronously and drops it from the cache. */
+    public void finish(GameState state) {
+        synchronized (writeLock) {
+            PendingWrite w;
+            synchronized (state) {
+                // A flush that ran since the last move has already written and dropped it.
+                if (state.isEvicted()) return;
+                w = drain(state);
+                dropFinished(state);
+            }
+            write(List.of(w));
+        }
+    }
+
+    // ===== Write-behind =====
+
+    @Scheduled(fixedDelayString = "${game.cache.flush-interval-ms:200}")
+    public void flush() {
+        synchronized (writeLock) {
+            List<PendingWrite> batch = new ArrayList<>();
+            for (GameState state : games.values()) {
+                synchronized (state) {
+                    if (state.isDirty()) {
+                        PendingWrite w = drain(state);
+                        // Finished under our feet: it is compacted now, so finish() must not write it again.
+                        if (w.finished()) dropFinished(state);
+                        batch.add(w);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+        evict();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private PendingWrite drain(GameState state) {
+        long since = state.dirtySinceNanos();
+        List<Move> moves = state.drainPendingMoves();
+        Game snapshot = state.getGame().snapshot();
+        return new PendingWrite(state, snapshot, moves, since, !"ONGOING".equals(snapshot.getStatus()));
+    }
+
+    private void dropFinished(GameState state) {
+        state.markEvicted();
+        games.remove(state.getGame().getId(), state);
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<PendingWrite> ongoing = new ArrayList<>(batch.size());
+        List<Move> moves = new ArrayList<>();
+        List<Game> snapshots = new ArrayList<>(batch.size());
+        for (PendingWrite w : batch) {
+            if (w.finished()) {
+                writeOne(w);
+                continue;
+            }
+            ongoing.add(w);
+            moves.addAll(w.moves());
+            snapshots.add(w.snapshot());
+        }
+        if (ongoing.isEmpty()) return;
+
+        try {
+            List<Game> saved = tx.execute(status -> {
+                moveRepo.saveAll(moves);
+                return gameRepo.saveAll(snapshots);
+            });
+            for (int i = 0; i < ongoing.size(); i++) {
+                written(ongoing.get(i), saved.get(i));
+            }
+        } catch (RuntimeException batchFailure) {
+            // Retry one game at a time so a single conflicting game cannot hold back the rest.
+            clearIds(moves);
+            for (PendingWrite w : ongoing) {
+                writeOne(w);
+            }
+        }
+    }
+
+    private void writeOne(PendingWrite w) {
+        Long gameId = w.snapshot().getId();
+        try {
+            Game saved = tx.execute(status -> w.finished() ? compact(w) : persist(w));
+            written(w, saved);
+        } catch (OptimisticLockingFailureException conflict) {
+            if (!supersededElsewhere(w)) {
+                // Not a lost race we can prove: these moves were acknowledged, so keep them.
+                log.error("Conflicting write of game {}, but MySQL is not past ply {}; keeping its {} pending moves",
+                        gameId, w.snapshot().getPlyCount(), w.moves().size(), conflict);
+                retryLater(w);
+                return;
+            }
+            // Another writer (e.g. a second replica) already committed these plies. Our copy lost
+            // the race: drop it so the next request reloads the committed state.
+            flushConflicts.increment();
+            log.warn("Discarding cached game {} after a conflicting write", gameId, conflict);
+            synchronized (w.state()) {
+                w.state().drainPendingMoves();
+                w.state().inFlightDone();
+                w.state().markEvicted();
+            }
+            games.remove(gameId, w.state());
+        } catch (DataIntegrityViolationException e) {
+            // A constraint or key collision is a bug or a bad migration, not a race: alert and keep the moves.
+            log.error("Write-behind flush of game {} violates a constraint; keeping its {} pending moves",
+                    gameId, w.moves().size(), e);
+            retryLater(w);
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush of game {} failed; will retry", gameId, e);
+            retryLater(w);
+        }
+    }
+
+    /** True when the committed row already holds every ply this write carries. */
+    private boolean supersededElsewhere(PendingWrite w) {
+        try {
+            Game committed = gameRepo.findById(w.snapshot().getId()).orElse(null);
+            return committed != null && committed.getPlyCount() >= w.snapshot().getPlyCount();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void retryLater(PendingWrite w) {
+        clearIds(w.moves());
+        flushFailures.increment();
+        synchronized (w.state()) {
+            w.state().restorePendingMoves(w.moves(), w.dirtySinceNanos());
+        }
+        // A finished game that failed to persist goes back into the cache for the next flush.
+        games.putIfAbsent(w.snapshot().getId(), w.state());
+    }
+
+    private Game persist(PendingWrite w) {
+        moveRepo.saveAll(w.moves());
+        return gameRepo.save(w.snapshot());
+    }
+
+    /**
+     * Packs every move of a finished game into {@link Game#getArchive()} and deletes its
+     * moves rows, so finished games cost one row instead of one row per ply.
+     */
+    private Game compact(PendingWrite w) {
+        Long gameId = w.snapshot().getId();
+        if (w.snapshot().getArchive() != null && w.moves().isEmpty()) {
+            // Already packed and its rows deleted: packing again would find no moves and blank it.
+            return w.snapshot();
+        }
+        List<Move> all = new ArrayList<>(moveRepo.findByGameIdOrderByMoveNumberAsc(gameId));
+        int flushed = all.size();
+        for (Move pending : w.moves()) {
+            if (pending.getMoveNumber() > flushed) all.add(pending);
+        }
+
+        // Replay from the start so rows written before packedMove existed can be encoded too.
+        Position position = Fen.parse(Position.START_FEN);
+        int[] packed = new int[all.size()];
+        for (int i = 0; i < packed.length; i++) {
+            int move = toEngineMove(position, all.get(i));
+            if (move == com.chadharangam.gameservice.engine.Move.NONE) {
+                throw new IllegalStateException("Corrupt move history for game " + gameId);
+            }
+            position.play(move);
+            packed[i] = move;
+        }
+
+        w.snapshot().setArchive(GameArchive.encode(packed, packed.length));
+        moveRepo.deleteAllByGameId(gameId);
+        return gameRepo.save(w.snapshot());
+    }
+
+    /** Ids handed out inside a rolled-back transaction were never committed. */
+    private static void clearIds(List<Move> moves) {
+        for (Move move : moves) {
+            move.setId(null);
+        }
+    }
+
+    private void written(PendingWrite w, Game saved) {
+        synchronized (w.state()) {
+            w.state().inFlightDone();
+            w.state().getGame().setVersion(saved.getVersion());
+            if (w.finished()) w.state().getGame().setArchive(saved.getArchive());
+        }
+        flushLag.record(System.nanoTime() - w.dirtySinceNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        for (GameState state : games.values()) {
+            if (now - state.lastAccessNanos() > idleTimeoutNanos && tryEvict(state)) {
+                idleEvictions.increment();
+            }
+        }
+
+        int excess = games.size() - maxSize;
+        if (excess <= 0) return;
+
+        List<GameState> coldest = new ArrayList<>(games.values());
+        coldest.sort(Comparator.comparingLong(GameState::lastAccessNanos));
+        for (int i = 0; i < coldest.size() && excess > 0; i++) {
+            if (tryEvict(coldest.get(i))) {
+                sizeEvictions.increment();
+                excess--;
+            }
+        }
+    }
+
+    /** Drops a clean state; dirty ones stay until the next flush has written them. */
+    private boolean tryEvict(GameState state) {
+        synchronized (state) {
+            if (state.isDirty()) return false;
+            state.markEvicted();
+            return games.remove(state.getGame().getId(), state);
+        }
+    }
+
+    // ===== Loading =====
+
+    private GameState load(Game game) {
+        String fen = game.getFen();
+        int legacy = fen.indexOf(LEGACY_SEPARATOR);
+        Position position = legacy < 0 ? Fen.parse(fen) : replayLegacy(fen, legacy);
+        GameState state = new GameState(game, position, rebuildHistory(game.getId(), position));
+        game.setPositionHash(position.hash());
+        if (legacy >= 0) {
+            game.setFen(Fen.toFen(position));
+            state.markDirty();
+        }
+        return state;
+    }
+
+    /**
+     * The repetition window is not persisted: rebuild it from the move rows of an ONGOING game.
+     * Skipped when the last move was irreversible, since no earlier position can recur.
+     */
+    private PositionHistory rebuildHistory(Long gameId, Position current) {
+        if (current.halfmoveClock() > 0) {
+            Position replay = Fen.parse(Position.START_FEN);
+            PositionHistory history = new PositionHistory();
+            history.push(replay.hash(), 0);
+            for (Move row : moveRepo.findByGameIdOrderByMoveNumberAsc(gameId)) {
+                int move = toEngineMove(replay, row);
+                if (move == com.chadharangam.gameservice.engine.Move.NONE) break;
+                replay.play(move);
+                history.push(replay.hash(), replay.halfmoveClock());
+            }
+            if (replay.hash() == current.hash()) return history;
+            log.warn("Move rows of game {} do not reach its FEN; repetition history starts now", gameId);
+        }
+        PositionHistory history = new PositionHistory();
+        history.push(current.hash(), current.halfmoveClock());
+        return history;
+    }
+
+    /** Engine move for a stored row; rows written before packedMove existed are matched by squares. */
+    private static int toEngineMove(Position position, Move row) {
+        if (row.getPackedMove() != null) return row.getPackedMove() & 0xFFFF;
+        return MoveGenerator.findLegal(position, Square.parse(row.getFromSquare()), Square.parse(row.getToSquare()), Piece.QUEEN);
+    }
+
+    /**
+     * Older rows stored the start FEN followed by " | e2-e4 | e7-e5 ..."; replay those moves
+     * once so the row is rewritten as a single canonical FEN.
+     */
+    private static Position replayLegacy(String fen, int firstSeparator) {
+        Position position = Fen.parse(fen, 0, firstSeparator);
+        int i = firstSeparator;
+        while (i >= 0) {
+            int start = i + LEGACY_SEPARATOR.length();
+            int from = Square.parse(fen.substring(start, start + 2));
+            int to = Square.parse(fen.substring(start + 3, start + 5));
+            int legacy = MoveGenerator.findLegal(position, from, to, Piece.QUEEN);
+            if (legacy == com.chadharangam.gameservice.engine.Move.NONE) {
+                throw new RuntimeException("Corrupt game history");
+            }
+            position.play(legacy);
+            i = fen.indexOf(LEGACY_SEPARATOR, start);
+        }
+        return position;
+    }
+
+    private record PendingWrite(GameState state, Game snapshot, List<Move> moves, long dirtySinceNanos, boolean finished) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.chadharangam.gameservice.cache;
+
+import com.chadharangam.gameservice.clock.TimingWheel;
+import com.chadharangam.gameservice.engine.Position;
+import com.chadharangam.gameservice.engine.PositionHistory;
+import com.chadharangam.gameservice.entity.Game;
+import com.chadharangam.gameservice.entity.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory state of one ONGOING game. Callers mutate it while holding its monitor;
+ * the flusher takes the same monitor to drain pending writes.
+ */
+public final class GameState {
+
+    private final Game game;
+    private final Position position;
+    private final PositionHistory history;
+
+    private final List<Move> pendingMoves = new ArrayList<>();
+    private List<Move> inFlight = List.of();
+    private boolean dirty;
+    private long dirtySinceNanos;
+    private boolean evicted;
+    private TimingWheel.Timeout flagTimer;
+
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    GameState(Game game, Position position, PositionHistory history) {
+        this.game = game;
+        this.position = position;
+        this.history = history;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    /** Hashes since the last irreversible move, for repetition detection. */
+    public PositionHistory getHistory() {
+        return history;
+    }
+
+    public int getMoveCount() {
+        return game.getPlyCount();
+    }
+
+    /** True once the cache has dropped this state; callers must look the game up again. */
+    public boolean isEvicted() {
+        return evicted;
+    }
+
+    /** Queues a move row and marks the game row dirty. */
+    public void recordMove(Move move) {
+        game.setPlyCount(game.getPlyCount() + 1);
+        pendingMoves.add(move);
+        markDirty();
+    }
+
+    /** Replaces the pending flag-fall timeout, cancelling the previous one; {@code null} just cancels. */
+    public void setFlagTimer(TimingWheel.Timeout timer) {
+        if (flagTimer != null) flagTimer.cancel();
+        flagTimer = timer;
+    }
+
+    public void markDirty() {
+        if (!dirty) {
+            dirty = true;
+            dirtySinceNanos = System.nanoTime();
+        }
+    }
+
+    /** The move {@link #recordMove} queued last, while it is still pending. */
+    public Move lastPendingMove() {
+        return pendingMoves.isEmpty() ? null : pendingMoves.get(pendingMoves.size() - 1);
+    }
+
+    /**
+     * Snapshot of moves accepted in memory but not yet committed to MySQL: those a flush is
+     * writing right now, then those queued since.
+     */
+    public List<Move> pendingMoves() {
+        List<Move> moves = new ArrayList<>(inFlight.size() + pendingMoves.size());
+        moves.addAll(inFlight);
+        moves.addAll(pendingMoves);
+        return moves;
+    }
+
+    /** True while a flush is writing moves drained from this state. */
+    public boolean hasMovesInFlight() {
+        return !inFlight.isEmpty();
+    }
+
+    // ===== Cache internals =====
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    long dirtySinceNanos() {
+        return dirtySinceNanos;
+    }
+
+    /** Hands the pending moves to a flush; they stay visible as in flight until it ends. */
+    List<Move> drainPendingMoves() {
+        List<Move> drained = new ArrayList<>(pendingMoves);
+        pendingMoves.clear();
+        inFlight = drained;
+        dirty = false;
+        return drained;
+    }
+
+    /** The flush of the drained moves committed, or they were given up. */
+    void inFlightDone() {
+        inFlight = List.of();
+    }
+
+    /** Puts moves from a failed flush back in front of anything queued since. */
+    void restorePendingMoves(List<Move> moves, long since) {
+        inFlight = List.of();
+        pendingMoves.addAll(0, moves);
+        evicted = false;
+        if (!dirty || since < dirtySinceNanos) {
+            dirtySinceNanos = since;
+        }
+        dirty = true;
+    }
+
+    void markEvicted() {
+        evicted = true;
+    }
+}
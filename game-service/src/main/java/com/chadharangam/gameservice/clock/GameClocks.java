@@ -0,0 +1,55 @@
+package com.chadharangam.gameservice.clock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Flag-fall scheduler for every timed game on this instance. One timing wheel holds the
+ * deadline of the side to move in each game; flag checks run on a small worker pool.
+ */
+@Component
+public class GameClocks {
+
+    private final ExecutorService flagExecutor;
+    private final TimingWheel wheel;
+
+    public GameClocks(
+            MeterRegistry registry,
+            @Value("${game.clock.tick-ms:50}") long tickMs,
+            @Value("${game.clock.wheel-size:1024}") int wheelSize,
+            @Value("${game.clock.flag-threads:2}") int flagThreads) {
+        this.flagExecutor = Executors.newFixedThreadPool(flagThreads, r -> {
+            Thread t = new Thread(r, "game-flag");
+            t.setDaemon(true);
+            return t;
+        });
+        this.wheel = new TimingWheel(tickMs, wheelSize, flagExecutor);
+        registry.gauge("game.clock.pending", wheel, TimingWheel::pending);
+    }
+
+    /** Wall-clock time used for all clock bookkeeping; persisted, so it must survive restarts. */
+    public long now() {
+        return System.currentTimeMillis();
+    }
+
+    /** Runs {@code onFlag} at {@code deadline} (epoch millis) unless cancelled first. */
+    public TimingWheel.Timeout schedule(long deadline, Runnable onFlag) {
+        return wheel.schedule(onFlag, deadline - now());
+    }
+
+    /** Flag deadlines currently armed. */
+    public int pending() {
+        return wheel.pending();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+        flagExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,32 @@
+package com.chadharangam.gameservice.clock;
+
+/**
+ * Initial time and per-move increment of a timed game. Accepts the lobby names the frontend
+ * and matchmaking use (BULLET, BLITZ, RAPID, CLASSICAL) or "minutes+seconds" such as "3+2".
+ */
+public record TimeControl(long initialMs, long incrementMs) {
+
+    /** Parses a time control; returns {@code null} for blank or unknown values (untimed game). */
+    public static TimeControl parse(String value) {
+        if (value == null || value.isBlank()) return null;
+        String v = value.trim().toUpperCase();
+        switch (v) {
+            case "BULLET": return new TimeControl(60_000, 0);
+            case "BLITZ": return new TimeControl(5 * 60_000, 0);
+            case "RAPID": return new TimeControl(10 * 60_000, 0);
+            case "CLASSICAL": return new TimeControl(30 * 60_000, 0);
+            default: break;
+        }
+
+        int plus = v.indexOf('+');
+        if (plus < 0) return null;
+        try {
+            long initialMs = Math.round(Double.parseDouble(v.substring(0, plus)) * 60_000);
+            long incrementMs = Math.round(Double.parseDouble(v.substring(plus + 1)) * 1_000);
+            if (initialMs <= 0 || incrementMs < 0) return null;
+            return new TimeControl(initialMs, incrementMs);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
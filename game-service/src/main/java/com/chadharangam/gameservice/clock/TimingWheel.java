@@ -0,0 +1,148 @@
+package com.chadharangam.gameservice.clock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel: one worker thread advances a ring of buckets once per tick and fires
+ * the timeouts that fall due. Each bucket is an intrusive doubly linked list, so scheduling
+ * and cancelling are O(1) regardless of how many timeouts are pending. Deadlines further out
+ * than one revolution carry a round count and stay in their bucket until it reaches zero.
+ * Expired tasks run on {@code executor}, never on the worker, so slow tasks cannot delay ticks.
+ * Resolution is one tick: a timeout fires no earlier than its deadline and at most a tick late.
+ */
+public final class TimingWheel {
+
+    private final long tickNanos;
+    private final Timeout[] buckets; // head of each bucket's list
+    private final int mask;
+    private final Executor executor;
+    private final Thread worker;
+    private final long startNanos = System.nanoTime();
+
+    private final Object lock = new Object();
+    private long nextTick; // index of the next tick the worker will process
+    private int pending;
+    private volatile boolean running = true;
+
+    public TimingWheel(long tickMs, int wheelSize, Executor executor) {
+        if (tickMs <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize a power of two");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.buckets = new Timeout[wheelSize];
+        this.mask = wheelSize - 1;
+        this.executor = executor;
+        this.worker = new Thread(this::run, "timing-wheel");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /** Runs {@code task} once, {@code delayMs} from now. */
+    public Timeout schedule(Runnable task, long delayMs) {
+        long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs));
+        // Round up so a timeout never fires before its deadline.
+        long tick = (deadline + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(task);
+        synchronized (lock) {
+            tick = Math.max(tick, nextTick);
+            timeout.rounds = (tick - nextTick) / buckets.length;
+            link(timeout, (int) (tick & mask));
+            pending++;
+        }
+        return timeout;
+    }
+
+    public int pending() {
+        synchronized (lock) {
+            return pending;
+        }
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        List<Timeout> expired = new ArrayList<>();
+        while (running) {
+            long sleepNanos = startNanos + nextTick * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+            }
+
+            synchronized (lock) {
+                int bucket = (int) (nextTick & mask);
+                Timeout t = buckets[bucket];
+                while (t != null) {
+                    Timeout next = t.next;
+                    if (t.rounds == 0) {
+                        unlink(t);
+                        pending--;
+                        expired.add(t);
+                    } else {
+                        t.rounds--;
+                    }
+                    t = next;
+                }
+                nextTick++;
+            }
+
+            for (Timeout t : expired) {
+                try {
+                    executor.execute(t.task);
+                } catch (RuntimeException rejected) {
+                    // Executor shut down during stop(); nothing left to fire into.
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    private void link(Timeout t, int bucket) {
+        t.bucket = bucket;
+        t.next = buckets[bucket];
+        if (t.next != null) t.next.prev = t;
+        buckets[bucket] = t;
+    }
+
+    private void unlink(Timeout t) {
+        if (t.prev != null) t.prev.next = t.next;
+        else buckets[t.bucket] = t.next;
+        if (t.next != null) t.next.prev = t.prev;
+        t.prev = null;
+        t.next = null;
+        t.bucket = -1;
+    }
+
+    /** Handle to a scheduled task. */
+    public final class Timeout {
+
+        private final Runnable task;
+        private Timeout prev;
+        private Timeout next;
+        private int bucket = -1;
+        private long rounds;
+
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        /** Returns false if the task already fired or was cancelled. */
+        public boolean cancel() {
+            synchronized (lock) {
+                if (bucket < 0) return false;
+                unlink(this);
+                pending--;
+                return true;
+            }
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package com.chadharangam.gameservice.controller;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.chadharangam.gameservice.entity.Game;
 import com.chadharangam.gameservice.entity.Move;
+import com.chadharangam.gameservice.dto.CreateGameRequest;
 import com.chadharangam.gameservice.dto.MoveRequest;
+import com.chadharangam.gameservice.security.CallerIdentity;
 import com.chadharangam.gameservice.service.GameService;
 
 @RestController
@@ -13,35 +24,83 @@ import com.chadharangam.gameservice.service.GameService;
 public class GameController {
 
     private final GameService service;
+    private final boolean identityRequired;
 
-    public GameController(GameService service) {
+    public GameController(GameService service, @Value("${identity.secret:}") String identitySecret) {
         this.service = service;
+        this.identityRequired = !identitySecret.isBlank();
     }
 
     @PostMapping("/create")
     public Game createGame(
             @RequestParam Long whitePlayerId,
-            @RequestParam Long blackPlayerId) {
-        return service.createGame(whitePlayerId, blackPlayerId);
+            @RequestParam Long blackPlayerId,
+            @RequestParam(required = false) String timeControl) {
+        return service.createGame(whitePlayerId, blackPlayerId, timeControl);
+    }
+
+    @PostMapping("/create-batch")
+    public List<Game> createGames(@RequestBody List<CreateGameRequest> requests) {
+        return service.createGames(requests);
     }
 
+    // With identity.secret set the mover is whoever the gateway signed for, whatever playerId the
+    // body names, and an unsigned move is refused. Without a secret the body is taken on trust.
     @PostMapping("/move")
-    public Game makeMove(@RequestBody MoveRequest request) {
-        return service.makeMove(
+    public CompletableFuture<Game> makeMove(
+            @RequestBody MoveRequest request,
+            @RequestAttribute(value = CallerIdentity.ATTRIBUTE, required = false) CallerIdentity caller) {
+        if (identityRequired && caller == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing caller identity");
+        }
+        return service.submitMove(
                 request.gameId,
-                request.playerId,
+                caller != null ? caller.playerId() : request.playerId,
                 request.from,
-                request.to
+                request.to,
+                request.promotion
         );
     }
 
+    // Conditional GETs: the ETag changes with every ply or status change, so a client holding the
+    // current one gets 304. Finished games never change and may be cached anywhere, the gateway
+    // included; ongoing ones are private and must be revalidated.
     @GetMapping("/{gameId}")
-    public Game getGame(@PathVariable Long gameId) {
-        return service.getGame(gameId);
+    public ResponseEntity<Game> getGame(@PathVariable Long gameId) {
+        Game game = service.getGame(gameId);
+        return cacheable(game, "game").body(game);
     }
 
     @GetMapping("/{gameId}/moves")
-    public List<Move> getMoves(@PathVariable Long gameId) {
-        return service.getMoveHistory(gameId);
+    public ResponseEntity<List<Move>> getMoves(@PathVariable Long gameId, WebRequest request) {
+        Game game = service.getGame(gameId);
+        // Checked before the history is read, so a 304 costs no move lookup at all.
+        if (request.checkNotModified(etag(game, "moves"))) {
+            return null;
+        }
+        return cacheable(game, "moves").body(service.getMoveHistory(gameId));
+    }
+
+    private static ResponseEntity.BodyBuilder cacheable(Game game, String kind) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag(game, kind));
+        if ("ONGOING".equals(game.getStatus())) {
+            return response.cacheControl(CacheControl.noCache().cachePrivate());
+        }
+        response.cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable());
+        Long modified = lastModified(game);
+        if (modified != null) response.lastModified(modified);
+        return response;
+    }
+
+    // Untimed games have no lastMoveAt; rows from before the timestamps existed may have none at all.
+    private static Long lastModified(Game game) {
+        if (game.getFinishedAt() != null) return game.getFinishedAt();
+        if (game.getLastMoveAt() != null) return game.getLastMoveAt();
+        return game.getCreatedAt();
+    }
+
+    // Weak: the JSON also carries the row version, which moves on with write-behind flushes.
+    private static String etag(Game game, String kind) {
+        return "W/\"" + kind + "-" + game.getId() + "-" + game.getPlyCount() + "-" + game.getStatus() + "\"";
     }
 }
@@ -0,0 +1,7 @@
+package com.chadharangam.gameservice.dto;
+
+public class CreateGameRequest {
+    public Long whitePlayerId;
+    public Long blackPlayerId;
+    public String timeControl; // BLITZ, "5+3", ...; optional
+}
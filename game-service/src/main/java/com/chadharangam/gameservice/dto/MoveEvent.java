@@ -0,0 +1,13 @@
+package com.chadharangam.gameservice.dto;
+
+public class MoveEvent {
+    public Long gameId;
+    public Long playerId;
+    public String from;
+    public String to;
+    public String fen;
+    public Integer moveNumber;
+    public String status;
+    public Integer move;   // engine encoding: from | to << 6 | flags << 12
+    public Long clockMs;   // mover's time left after the move; null when untimed
+}
@@ -5,4 +5,5 @@ public class MoveRequest {
     public Long playerId;
     public String from;
     public String to;
+    public String promotion; // q, r, b or n; defaults to queen
 }
@@ -0,0 +1,170 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Precomputed attack tables. Leaper attacks are plain lookups; sliding attacks use
+ * "fancy" magic bitboards whose magic numbers are searched once at class initialisation
+ * with a fixed seed, so startup is deterministic and lookups are a multiply, shift and load.
+ */
+public final class Attacks {
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] ROOK_MAGIC = new long[64];
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final long[] BISHOP_MAGIC = new long[64];
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final int[][] ROOK_DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static long seed = 0x9E3779B97F4A7C15L;
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] kingSteps = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT[sq] = leaper(sq, knightSteps);
+            KING[sq] = leaper(sq, kingSteps);
+            PAWN[Piece.WHITE][sq] = leaper(sq, new int[][]{{-1, 1}, {1, 1}});
+            PAWN[Piece.BLACK][sq] = leaper(sq, new int[][]{{-1, -1}, {1, -1}});
+
+            ROOK_MASK[sq] = relevantMask(sq, ROOK_DIRS);
+            BISHOP_MASK[sq] = relevantMask(sq, BISHOP_DIRS);
+            initMagic(sq, ROOK_MASK, ROOK_MAGIC, ROOK_SHIFT, ROOK_TABLE, ROOK_DIRS);
+            initMagic(sq, BISHOP_MASK, BISHOP_MAGIC, BISHOP_SHIFT, BISHOP_TABLE, BISHOP_DIRS);
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /** Squares attacked by a pawn of {@code color} standing on {@code square}. */
+    public static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASK[square]) * ROOK_MAGIC[square]) >>> ROOK_SHIFT[square]);
+        return ROOK_TABLE[square][index];
+    }
+
+    public static long bishop(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASK[square]) * BISHOP_MAGIC[square]) >>> BISHOP_SHIFT[square]);
+        return BISHOP_TABLE[square][index];
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    // ===== Table construction =====
+
+    private static long leaper(int sq, int[][] steps) {
+        long bb = 0L;
+        int f = Square.file(sq);
+        int r = Square.rank(sq);
+        for (int[] s : steps) {
+            int nf = f + s[0];
+            int nr = r + s[1];
+            if (nf >= 0 && nf < 8 && nr >= 0 && nr < 8) {
+                bb |= 1L << Square.of(nf, nr);
+            }
+        }
+        return bb;
+    }
+
+    /** Rays from {@code sq} excluding the board edge, which never changes the attack set. */
+    private static long relevantMask(int sq, int[][] dirs) {
+        long mask = 0L;
+        for (int[] d : dirs) {
+            int f = Square.file(sq) + d[0];
+            int r = Square.rank(sq) + d[1];
+            while (f + d[0] >= 0 && f + d[0] < 8 && r + d[1] >= 0 && r + d[1] < 8) {
+                mask |= 1L << Square.of(f, r);
+                f += d[0];
+                r += d[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(int sq, long occupied, int[][] dirs) {
+        long attacks = 0L;
+        for (int[] d : dirs) {
+            int f = Square.file(sq) + d[0];
+            int r = Square.rank(sq) + d[1];
+            while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                long bit = 1L << Square.of(f, r);
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                f += d[0];
+                r += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static void initMagic(int sq, long[] masks, long[] magics, int[] shifts, long[][] tables, int[][] dirs) {
+        long mask = masks[sq];
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+
+        long[] occupancies = new long[size];
+        long[] reference = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            reference[i] = slidingAttacks(sq, subset, dirs);
+            subset = (subset - mask) & mask; // carry-rippler: next subset of mask
+        }
+
+        long[] table = new long[size];
+        int[] epoch = new int[size];
+        int attempt = 0;
+        while (true) {
+            long magic = random() & random() & random();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) continue;
+
+            attempt++;
+            boolean ok = true;
+            for (int i = 0; i < size && ok; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    table[index] = reference[i];
+                } else if (table[index] != reference[i]) {
+                    ok = false;
+                }
+            }
+            if (ok) {
+                magics[sq] = magic;
+                shifts[sq] = 64 - bits;
+                tables[sq] = table;
+                return;
+            }
+        }
+    }
+
+    private static long random() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -0,0 +1,191 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * FEN codec. Parsing walks the input once by index (no split or substring), and
+ * {@link #update} rewrites only the ranks a move touched, copying the rest of the
+ * placement from the previous FEN.
+ */
+public final class Fen {
+
+    /** Longest possible canonical FEN is well under this; used to size the column and buffers. */
+    public static final int MAX_LENGTH = 100;
+
+    private Fen() {
+    }
+
+    public static Position parse(CharSequence fen) {
+        return parse(fen, 0, fen.length());
+    }
+
+    /** Parses {@code fen[start, end)}, so a FEN embedded in a longer string needs no copy. */
+    public static Position parse(CharSequence fen, int start, int end) {
+        Position p = new Position();
+        int i = skipSpaces(fen, start, end);
+
+        // Placement
+        int rank = 7;
+        int file = 0;
+        for (; i < end && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (file != 8) throw invalid(fen);
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) throw invalid(fen);
+            } else {
+                int piece = Piece.fromFenChar(c);
+                if (piece == Piece.NONE || file > 7 || rank < 0) throw invalid(fen);
+                p.put(Square.of(file, rank), piece);
+                file++;
+            }
+        }
+        if (rank != 0 || file != 8) throw invalid(fen);
+        if (Long.bitCount(p.pieces(Piece.WHITE, Piece.KING)) != 1
+                || Long.bitCount(p.pieces(Piece.BLACK, Piece.KING)) != 1) {
+            throw invalid(fen);
+        }
+
+        // Side to move
+        i = skipSpaces(fen, i, end);
+        if (i >= end) throw invalid(fen);
+        char side = fen.charAt(i++);
+        if (side == 'w') p.sideToMove = Piece.WHITE;
+        else if (side == 'b') p.sideToMove = Piece.BLACK;
+        else throw invalid(fen);
+
+        // Castling
+        i = skipSpaces(fen, i, end);
+        for (; i < end && fen.charAt(i) != ' '; i++) {
+            switch (fen.charAt(i)) {
+                case 'K' -> p.castling |= Position.WHITE_KINGSIDE;
+                case 'Q' -> p.castling |= Position.WHITE_QUEENSIDE;
+                case 'k' -> p.castling |= Position.BLACK_KINGSIDE;
+                case 'q' -> p.castling |= Position.BLACK_QUEENSIDE;
+                case '-' -> { }
+                default -> throw invalid(fen);
+            }
+        }
+
+        // En passant
+        i = skipSpaces(fen, i, end);
+        if (i < end && fen.charAt(i) == '-') {
+            i++;
+        } else if (i + 1 < end) {
+            int epFile = fen.charAt(i) - 'a';
+            int epRank = fen.charAt(i + 1) - '1';
+            if (epFile < 0 || epFile > 7 || (epRank != 2 && epRank != 5)) throw invalid(fen);
+            p.epSquare = Square.of(epFile, epRank);
+            i += 2;
+        }
+
+        // Clocks are optional in the wild; default them like most GUIs do.
+        i = skipSpaces(fen, i, end);
+        int halfmoveEnd = scanNumber(fen, i, end);
+        p.halfmoveClock = halfmoveEnd > i ? parseInt(fen, i, halfmoveEnd) : 0;
+        i = skipSpaces(fen, halfmoveEnd, end);
+        int fullmoveEnd = scanNumber(fen, i, end);
+        p.fullmoveNumber = fullmoveEnd > i ? Math.max(1, parseInt(fen, i, fullmoveEnd)) : 1;
+        p.initHash();
+        return p;
+    }
+
+    public static String toFen(Position p) {
+        StringBuilder sb = new StringBuilder(MAX_LENGTH);
+        for (int rank = 7; rank >= 0; rank--) {
+            appendRank(p, rank, sb);
+            if (rank > 0) sb.append('/');
+        }
+        appendState(p, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Produces the FEN of {@code p} after {@code move} was played on the position described
+     * by {@code previous}. Only the ranks the move touched are re-rendered; every other rank
+     * is copied verbatim from {@code previous}.
+     */
+    public static String update(String previous, Position p, int move) {
+        int changedA = Square.rank(Move.from(move));
+        int changedB = Square.rank(Move.to(move));
+
+        StringBuilder sb = new StringBuilder(MAX_LENGTH);
+        int i = 0;
+        for (int rank = 7; rank >= 0; rank--) {
+            int next = i;
+            while (next < previous.length() && previous.charAt(next) != '/' && previous.charAt(next) != ' ') {
+                next++;
+            }
+            if (rank == changedA || rank == changedB) {
+                appendRank(p, rank, sb);
+            } else {
+                sb.append(previous, i, next);
+            }
+            if (rank > 0) sb.append('/');
+            i = next + 1;
+        }
+        appendState(p, sb);
+        return sb.toString();
+    }
+
+    private static void appendRank(Position p, int rank, StringBuilder sb) {
+        int empty = 0;
+        for (int file = 0; file < 8; file++) {
+            int piece = p.pieceAt(Square.of(file, rank));
+            if (piece == Piece.NONE) {
+                empty++;
+                continue;
+            }
+            if (empty > 0) {
+                sb.append((char) ('0' + empty));
+                empty = 0;
+            }
+            sb.append(Piece.toFenChar(piece));
+        }
+        if (empty > 0) sb.append((char) ('0' + empty));
+    }
+
+    private static void appendState(Position p, StringBuilder sb) {
+        sb.append(p.sideToMove() == Piece.WHITE ? " w " : " b ");
+        int castling = p.castlingRights();
+        if (castling == 0) {
+            sb.append('-');
+        } else {
+            if ((castling & Position.WHITE_KINGSIDE) != 0) sb.append('K');
+            if ((castling & Position.WHITE_QUEENSIDE) != 0) sb.append('Q');
+            if ((castling & Position.BLACK_KINGSIDE) != 0) sb.append('k');
+            if ((castling & Position.BLACK_QUEENSIDE) != 0) sb.append('q');
+        }
+        sb.append(' ');
+        int ep = p.epSquare();
+        if (ep == Square.NONE) {
+            sb.append('-');
+        } else {
+            sb.append((char) ('a' + Square.file(ep))).append((char) ('1' + Square.rank(ep)));
+        }
+        sb.append(' ').append(p.halfmoveClock()).append(' ').append(p.fullmoveNumber());
+    }
+
+    private static int skipSpaces(CharSequence s, int i, int end) {
+        while (i < end && s.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    private static int scanNumber(CharSequence s, int i, int end) {
+        while (i < end && s.charAt(i) >= '0' && s.charAt(i) <= '9') i++;
+        return i;
+    }
+
+    private static int parseInt(CharSequence s, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen) {
+        return new IllegalArgumentException("Invalid FEN: " + fen);
+    }
+}
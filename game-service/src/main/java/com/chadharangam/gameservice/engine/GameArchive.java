@@ -0,0 +1,69 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Packed move list of a finished game, stored as one BLOB on the games row.
+ * Layout: format byte, varint ply count, then each {@link Move} as 2 big-endian bytes.
+ * Games always start from {@link Position#START_FEN}, so no start position is stored.
+ */
+public final class GameArchive {
+
+    private static final int FORMAT_V1 = 1;
+
+    private GameArchive() {
+    }
+
+    public static byte[] encode(int[] moves, int count) {
+        int varintLength = varintLength(count);
+        byte[] out = new byte[1 + varintLength + 2 * count];
+        out[0] = FORMAT_V1;
+
+        int i = 1;
+        int v = count;
+        while ((v & ~0x7F) != 0) {
+            out[i++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out[i++] = (byte) v;
+
+        for (int m = 0; m < count; m++) {
+            out[i++] = (byte) (moves[m] >>> 8);
+            out[i++] = (byte) moves[m];
+        }
+        return out;
+    }
+
+    public static int[] decode(byte[] archive) {
+        if (archive.length == 0 || archive[0] != FORMAT_V1) {
+            throw new IllegalArgumentException("Unknown game archive format");
+        }
+
+        int i = 1;
+        int count = 0;
+        int shift = 0;
+        while (true) {
+            int b = archive[i++] & 0xFF;
+            count |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+            shift += 7;
+        }
+
+        if (archive.length != i + 2 * count) {
+            throw new IllegalArgumentException("Truncated game archive");
+        }
+        int[] moves = new int[count];
+        for (int m = 0; m < count; m++) {
+            moves[m] = ((archive[i] & 0xFF) << 8) | (archive[i + 1] & 0xFF);
+            i += 2;
+        }
+        return moves;
+    }
+
+    private static int varintLength(int v) {
+        int length = 1;
+        while ((v & ~0x7F) != 0) {
+            length++;
+            v >>>= 7;
+        }
+        return length;
+    }
+}
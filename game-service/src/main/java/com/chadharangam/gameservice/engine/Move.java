@@ -0,0 +1,65 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * 16-bit move encoding packed into an int: bits 0-5 from square, bits 6-11 to square,
+ * bits 12-15 flags. Moves are plain ints so generating them never allocates.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EP_CAPTURE = 5;
+    public static final int PROMOTION = 8;   // + 0..3 for knight, bishop, rook, queen
+    public static final int PROMOTION_CAPTURE = 12;
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int f = flags(move);
+        return f == KING_CASTLE || f == QUEEN_CASTLE;
+    }
+
+    /** Piece type a promotion turns into ({@link Piece#KNIGHT}..{@link Piece#QUEEN}). */
+    public static int promotionType(int move) {
+        return Piece.KNIGHT + (flags(move) & 3);
+    }
+
+    /** Long algebraic notation, e.g. "e2e4" or "e7e8q". */
+    public static String toUci(int move) {
+        String s = Square.name(from(move)) + Square.name(to(move));
+        if (isPromotion(move)) {
+            s += "nbrq".charAt(flags(move) & 3);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,176 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Legal move generation. Moves are generated pseudo-legally into a caller-owned
+ * {@link MoveList} and then filtered in place with make/unmake, so nothing is allocated.
+ */
+public final class MoveGenerator {
+
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+
+    private static final ThreadLocal<MoveList> SCRATCH = ThreadLocal.withInitial(MoveList::new);
+
+    private MoveGenerator() {
+    }
+
+    public static void generateLegal(Position p, MoveList out) {
+        generatePseudoLegal(p, out);
+
+        int us = p.sideToMove;
+        int kept = 0;
+        for (int i = 0; i < out.size(); i++) {
+            int move = out.get(i);
+            p.makeMove(move);
+            boolean legal = !p.isAttacked(p.kingSquare(us), us ^ 1);
+            p.unmakeMove(move);
+            if (legal) out.set(kept++, move);
+        }
+        out.truncate(kept);
+    }
+
+    public static boolean hasLegalMove(Position p) {
+        MoveList list = SCRATCH.get();
+        generateLegal(p, list);
+        return list.size() > 0;
+    }
+
+    /**
+     * Finds the legal move from {@code from} to {@code to}. {@code promotionType} picks the
+     * promotion piece and is ignored for non-promotions. Returns {@link Move#NONE} if illegal.
+     */
+    public static int findLegal(Position p, int from, int to, int promotionType) {
+        MoveList list = SCRATCH.get();
+        generateLegal(p, list);
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            if (Move.from(move) != from || Move.to(move) != to) continue;
+            if (Move.isPromotion(move) && Move.promotionType(move) != promotionType) continue;
+            return move;
+        }
+        return Move.NONE;
+    }
+
+    static void generatePseudoLegal(Position p, MoveList out) {
+        out.clear();
+        int us = p.sideToMove;
+        int them = us ^ 1;
+        long own = p.colors[us];
+        long enemy = p.colors[them];
+        long occ = p.occupied;
+
+        generatePawnMoves(p, out, us, enemy, occ);
+
+        long knights = p.pieces[Piece.of(us, Piece.KNIGHT)];
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            addTargets(out, from, Attacks.knight(from) & ~own, enemy);
+        }
+
+        long diagonal = p.pieces[Piece.of(us, Piece.BISHOP)] | p.pieces[Piece.of(us, Piece.QUEEN)];
+        while (diagonal != 0) {
+            int from = Long.numberOfTrailingZeros(diagonal);
+            diagonal &= diagonal - 1;
+            addTargets(out, from, Attacks.bishop(from, occ) & ~own, enemy);
+        }
+
+        long straight = p.pieces[Piece.of(us, Piece.ROOK)] | p.pieces[Piece.of(us, Piece.QUEEN)];
+        while (straight != 0) {
+            int from = Long.numberOfTrailingZeros(straight);
+            straight &= straight - 1;
+            addTargets(out, from, Attacks.rook(from, occ) & ~own, enemy);
+        }
+
+        int king = p.kingSquare(us);
+        addTargets(out, king, Attacks.king(king) & ~own, enemy);
+        generateCastling(p, out, us, king, occ);
+    }
+
+    private static void generatePawnMoves(Position p, MoveList out, int us, long enemy, long occ) {
+        long pawns = p.pieces[Piece.of(us, Piece.PAWN)];
+        long empty = ~occ;
+        long promoRank = us == Piece.WHITE ? RANK_8 : RANK_1;
+        int forward = us == Piece.WHITE ? 8 : -8;
+        int startRank = us == Piece.WHITE ? 1 : 6;
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            int to = from + forward;
+            if ((empty & (1L << to)) != 0) {
+                if ((promoRank & (1L << to)) != 0) {
+                    addPromotions(out, from, to, Move.PROMOTION);
+                } else {
+                    out.add(Move.encode(from, to, Move.QUIET));
+                    int two = to + forward;
+                    if (Square.rank(from) == startRank && (empty & (1L << two)) != 0) {
+                        out.add(Move.encode(from, two, Move.DOUBLE_PAWN_PUSH));
+                    }
+                }
+            }
+
+            long attacks = Attacks.pawn(us, from);
+            long captures = attacks & enemy;
+            while (captures != 0) {
+                int target = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if ((promoRank & (1L << target)) != 0) {
+                    addPromotions(out, from, target, Move.PROMOTION_CAPTURE);
+                } else {
+                    out.add(Move.encode(from, target, Move.CAPTURE));
+                }
+            }
+
+            if (p.epSquare != Square.NONE && (attacks & (1L << p.epSquare)) != 0) {
+                out.add(Move.encode(from, p.epSquare, Move.EP_CAPTURE));
+            }
+        }
+    }
+
+    private static void addPromotions(MoveList out, int from, int to, int baseFlags) {
+        for (int i = 3; i >= 0; i--) {
+            out.add(Move.encode(from, to, baseFlags + i));
+        }
+    }
+
+    private static void addTargets(MoveList out, int from, long targets, long enemy) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            out.add(Move.encode(from, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET));
+        }
+    }
+
+    private static void generateCastling(Position p, MoveList out, int us, int king, long occ) {
+        int rights = us == Piece.WHITE
+                ? p.castling & (Position.WHITE_KINGSIDE | Position.WHITE_QUEENSIDE)
+                : p.castling & (Position.BLACK_KINGSIDE | Position.BLACK_QUEENSIDE);
+        if (rights == 0) return;
+
+        int home = us == Piece.WHITE ? 4 : 60;
+        if (king != home) return;
+        int them = us ^ 1;
+        if (p.isAttacked(home, them)) return;
+
+        int rook = Piece.of(us, Piece.ROOK);
+        int kingside = us == Piece.WHITE ? Position.WHITE_KINGSIDE : Position.BLACK_KINGSIDE;
+        if ((rights & kingside) != 0
+                && p.board[home + 3] == rook
+                && (occ & ((1L << (home + 1)) | (1L << (home + 2)))) == 0
+                && !p.isAttacked(home + 1, them)
+                && !p.isAttacked(home + 2, them)) {
+            out.add(Move.encode(home, home + 2, Move.KING_CASTLE));
+        }
+
+        int queenside = us == Piece.WHITE ? Position.WHITE_QUEENSIDE : Position.BLACK_QUEENSIDE;
+        if ((rights & queenside) != 0
+                && p.board[home - 4] == rook
+                && (occ & ((1L << (home - 1)) | (1L << (home - 2)) | (1L << (home - 3)))) == 0
+                && !p.isAttacked(home - 1, them)
+                && !p.isAttacked(home - 2, them)) {
+            out.add(Move.encode(home, home - 2, Move.QUEEN_CASTLE));
+        }
+    }
+}
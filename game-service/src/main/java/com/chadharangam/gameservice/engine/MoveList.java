@@ -0,0 +1,36 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Reusable fixed-size buffer of encoded moves. No legal chess position has more than 218 moves.
+ */
+public final class MoveList {
+
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    void add(int move) {
+        moves[size++] = move;
+    }
+
+    void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    void truncate(int newSize) {
+        size = newSize;
+    }
+}
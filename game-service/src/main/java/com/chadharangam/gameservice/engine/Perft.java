@@ -0,0 +1,34 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Counts leaf nodes of the legal move tree. Used to verify the move generator against
+ * published reference counts.
+ */
+public final class Perft {
+
+    private final MoveList[] lists;
+
+    public Perft(int maxDepth) {
+        lists = new MoveList[maxDepth + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+    }
+
+    public long count(Position p, int depth) {
+        if (depth == 0) return 1;
+
+        MoveList list = lists[depth];
+        MoveGenerator.generateLegal(p, list);
+        if (depth == 1) return list.size();
+
+        long nodes = 0;
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            p.makeMove(move);
+            nodes += count(p, depth - 1);
+            p.unmakeMove(move);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,46 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Piece and colour constants. A piece code is {@code color * 6 + type},
+ * so white pieces are 0..5, black pieces are 6..11 and {@link #NONE} marks an empty square.
+ */
+public final class Piece {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int NONE = -1;
+
+    private static final String FEN_CHARS = "PNBRQKpnbrqk";
+
+    private Piece() {
+    }
+
+    public static int of(int color, int type) {
+        return color * 6 + type;
+    }
+
+    public static int color(int piece) {
+        return piece / 6;
+    }
+
+    public static int type(int piece) {
+        return piece % 6;
+    }
+
+    public static char toFenChar(int piece) {
+        return FEN_CHARS.charAt(piece);
+    }
+
+    /** Returns the piece code for a FEN letter, or {@link #NONE} if the letter is not a piece. */
+    public static int fromFenChar(char c) {
+        return FEN_CHARS.indexOf(c);
+    }
+}
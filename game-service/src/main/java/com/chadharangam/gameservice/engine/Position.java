@@ -0,0 +1,250 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Mutable bitboard chess position with make/unmake. Undo information lives in fixed
+ * arrays, so making and unmaking moves never allocates.
+ */
+public final class Position {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    private static final int MAX_DEPTH = 128;
+
+    // Castling rights that survive a move touching the given square.
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        java.util.Arrays.fill(CASTLING_MASK, 0xF);
+        CASTLING_MASK[Square.parse("a1")] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[Square.parse("h1")] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[Square.parse("e1")] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[Square.parse("a8")] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASK[Square.parse("h8")] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[Square.parse("e8")] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
+
+    final long[] pieces = new long[12];
+    final long[] colors = new long[2];
+    long occupied;
+    final int[] board = new int[64];
+
+    int sideToMove = Piece.WHITE;
+    int castling;
+    int epSquare = Square.NONE;
+    int halfmoveClock;
+    int fullmoveNumber = 1;
+    long hash;
+
+    private final int[] undoCaptured = new int[MAX_DEPTH];
+    private final int[] undoCastling = new int[MAX_DEPTH];
+    private final int[] undoEp = new int[MAX_DEPTH];
+    private final int[] undoHalfmove = new int[MAX_DEPTH];
+    private final long[] undoHash = new long[MAX_DEPTH];
+    private int depth;
+
+    public Position() {
+        java.util.Arrays.fill(board, Piece.NONE);
+    }
+
+    // ===== Accessors =====
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    public int pieceAt(int square) {
+        return board[square];
+    }
+
+    public int castlingRights() {
+        return castling;
+    }
+
+    public int epSquare() {
+        return epSquare;
+    }
+
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /** 64-bit Zobrist hash of placement, side to move, castling rights and en passant file. */
+    public long hash() {
+        return hash;
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[Piece.of(color, type)];
+    }
+
+    public int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[Piece.of(color, Piece.KING)]);
+    }
+
+    public boolean isInCheck() {
+        return isAttacked(kingSquare(sideToMove), sideToMove ^ 1);
+    }
+
+    public boolean isAttacked(int square, int byColor) {
+        if ((Attacks.pawn(byColor ^ 1, square) & pieces[Piece.of(byColor, Piece.PAWN)]) != 0) return true;
+        if ((Attacks.knight(square) & pieces[Piece.of(byColor, Piece.KNIGHT)]) != 0) return true;
+        if ((Attacks.king(square) & pieces[Piece.of(byColor, Piece.KING)]) != 0) return true;
+
+        long queens = pieces[Piece.of(byColor, Piece.QUEEN)];
+        if ((Attacks.bishop(square, occupied) & (pieces[Piece.of(byColor, Piece.BISHOP)] | queens)) != 0) return true;
+        return (Attacks.rook(square, occupied) & (pieces[Piece.of(byColor, Piece.ROOK)] | queens)) != 0;
+    }
+
+    /** True when neither side has enough material to deliver mate (K vs K, K+minor vs K, same-coloured bishops). */
+    public boolean isInsufficientMaterial() {
+        long heavy = 0L;
+        for (int color = 0; color < 2; color++) {
+            heavy |= pieces[Piece.of(color, Piece.PAWN)]
+                    | pieces[Piece.of(color, Piece.ROOK)]
+                    | pieces[Piece.of(color, Piece.QUEEN)];
+        }
+        if (heavy != 0) return false;
+
+        long knights = pieces[Piece.of(Piece.WHITE, Piece.KNIGHT)] | pieces[Piece.of(Piece.BLACK, Piece.KNIGHT)];
+        long bishops = pieces[Piece.of(Piece.WHITE, Piece.BISHOP)] | pieces[Piece.of(Piece.BLACK, Piece.BISHOP)];
+        int minors = Long.bitCount(knights | bishops);
+        if (minors <= 1) return true;
+        if (knights != 0) return false;
+
+        long lightSquares = 0x55AA55AA55AA55AAL;
+        return (bishops & lightSquares) == 0 || (bishops & ~lightSquares) == 0;
+    }
+
+    // ===== Make / unmake =====
+
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        int us = sideToMove;
+        int piece = board[from];
+
+        undoCastling[depth] = castling;
+        undoEp[depth] = epSquare;
+        undoHalfmove[depth] = halfmoveClock;
+        undoHash[depth] = hash;
+        hash ^= Zobrist.CASTLING[castling] ^ epHash();
+
+        int captured = Piece.NONE;
+        if (flags == Move.EP_CAPTURE) {
+            int capSq = us == Piece.WHITE ? to - 8 : to + 8;
+            captured = board[capSq];
+            remove(capSq);
+        } else if ((flags & Move.CAPTURE) != 0) {
+            captured = board[to];
+            remove(to);
+        }
+        undoCaptured[depth] = captured;
+        depth++;
+
+        remove(from);
+        put(to, (flags & Move.PROMOTION) != 0 ? Piece.of(us, Move.promotionType(move)) : piece);
+
+        if (flags == Move.KING_CASTLE) {
+            int rook = remove(to + 1);
+            put(to - 1, rook);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            int rook = remove(to - 2);
+            put(to + 1, rook);
+        }
+
+        epSquare = flags == Move.DOUBLE_PAWN_PUSH ? (from + to) >>> 1 : Square.NONE;
+        castling &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        halfmoveClock = (Piece.type(piece) == Piece.PAWN || captured != Piece.NONE) ? 0 : halfmoveClock + 1;
+        if (us == Piece.BLACK) fullmoveNumber++;
+        sideToMove = us ^ 1;
+        hash ^= Zobrist.CASTLING[castling] ^ epHash() ^ Zobrist.BLACK_TO_MOVE;
+    }
+
+    public void unmakeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        int us = sideToMove ^ 1;
+
+        depth--;
+        sideToMove = us;
+        if (us == Piece.BLACK) fullmoveNumber--;
+        castling = undoCastling[depth];
+        epSquare = undoEp[depth];
+        halfmoveClock = undoHalfmove[depth];
+
+        if (flags == Move.KING_CASTLE) {
+            int rook = remove(to - 1);
+            put(to + 1, rook);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            int rook = remove(to + 1);
+            put(to - 2, rook);
+        }
+
+        int moved = remove(to);
+        put(from, (flags & Move.PROMOTION) != 0 ? Piece.of(us, Piece.PAWN) : moved);
+
+        int captured = undoCaptured[depth];
+        if (captured != Piece.NONE) {
+            put(flags == Move.EP_CAPTURE ? (us == Piece.WHITE ? to - 8 : to + 8) : to, captured);
+        }
+        hash = undoHash[depth];
+    }
+
+    /** Makes a move permanently; its undo information is discarded. */
+    public void play(int move) {
+        makeMove(move);
+        depth = 0;
+    }
+
+    /** Recomputes {@link #hash()} from scratch; called once after a position is set up directly. */
+    void initHash() {
+        long h = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            if (board[sq] != Piece.NONE) h ^= Zobrist.piece(board[sq], sq);
+        }
+        h ^= Zobrist.CASTLING[castling] ^ epHash();
+        if (sideToMove == Piece.BLACK) h ^= Zobrist.BLACK_TO_MOVE;
+        hash = h;
+    }
+
+    /**
+     * The en passant file is hashed only when a pawn could actually capture there, so positions
+     * that differ just by an unusable en passant square hash the same (as the repetition rule requires).
+     */
+    private long epHash() {
+        if (epSquare == Square.NONE) return 0L;
+        long capturers = Attacks.pawn(sideToMove ^ 1, epSquare) & pieces[Piece.of(sideToMove, Piece.PAWN)];
+        return capturers != 0 ? Zobrist.EP_FILE[Square.file(epSquare)] : 0L;
+    }
+
+    void put(int square, int piece) {
+        long bit = 1L << square;
+        hash ^= Zobrist.piece(piece, square);
+        board[square] = piece;
+        pieces[piece] |= bit;
+        colors[Piece.color(piece)] |= bit;
+        occupied |= bit;
+    }
+
+    private int remove(int square) {
+        int piece = board[square];
+        long bit = ~(1L << square);
+        hash ^= Zobrist.piece(piece, square);
+        board[square] = Piece.NONE;
+        pieces[piece] &= bit;
+        colors[Piece.color(piece)] &= bit;
+        occupied &= bit;
+        return piece;
+    }
+}
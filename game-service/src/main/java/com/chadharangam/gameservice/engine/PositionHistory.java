@@ -0,0 +1,40 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Zobrist hashes of the positions since the last irreversible move (pawn move or capture).
+ * Earlier positions can never repeat, so the buffer is cleared on every irreversible move
+ * and never holds more than the fifty-move window of 101 entries. The repetition scan is
+ * bounded by the halfmove clock of the latest position, not by the buffer.
+ */
+public final class PositionHistory {
+
+    private long[] hashes = new long[16];
+    private int size;
+    private int halfmoveClock;
+
+    /** Records the position reached after a move; {@code halfmoveClock} 0 starts a new window. */
+    public void push(long hash, int halfmoveClock) {
+        if (halfmoveClock == 0) size = 0;
+        if (size == hashes.length) hashes = java.util.Arrays.copyOf(hashes, size * 2);
+        hashes[size++] = hash;
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /** How many times the most recent position has occurred, including itself. */
+    public int repetitions() {
+        if (size == 0) return 0;
+        long current = hashes[size - 1];
+        int count = 1;
+        // Only the last halfmoveClock plies were reversible, and a position needs at least four
+        // of them to recur with the same side to move: step back two plies at a time from there.
+        int oldest = Math.max(0, size - 1 - halfmoveClock);
+        for (int i = size - 5; i >= oldest; i -= 2) {
+            if (hashes[i] == current) count++;
+        }
+        return count;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,37 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Square helpers. Squares are numbered 0..63 with a1 = 0, h1 = 7 and h8 = 63.
+ */
+public final class Square {
+
+    public static final int NONE = -1;
+
+    private Square() {
+    }
+
+    public static int of(int file, int rank) {
+        return rank * 8 + file;
+    }
+
+    public static int file(int square) {
+        return square & 7;
+    }
+
+    public static int rank(int square) {
+        return square >>> 3;
+    }
+
+    /** Parses algebraic notation such as "e4"; returns {@link #NONE} for anything else. */
+    public static int parse(CharSequence name) {
+        if (name == null || name.length() != 2) return NONE;
+        int file = Character.toLowerCase(name.charAt(0)) - 'a';
+        int rank = name.charAt(1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) return NONE;
+        return of(file, rank);
+    }
+
+    public static String name(int square) {
+        return new String(new char[]{(char) ('a' + file(square)), (char) ('1' + rank(square))});
+    }
+}
@@ -0,0 +1,36 @@
+package com.chadharangam.gameservice.engine;
+
+/**
+ * Random keys for 64-bit Zobrist hashing. Generated from a fixed seed so hashes are stable
+ * across restarts and replicas and can be persisted or used as cache keys.
+ */
+final class Zobrist {
+
+    static final long[] PIECE_SQUARE = new long[12 * 64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EP_FILE = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    private static long seed = 0x2D358DCCAA6C78A5L;
+
+    static {
+        for (int i = 0; i < PIECE_SQUARE.length; i++) PIECE_SQUARE[i] = random();
+        for (int i = 0; i < CASTLING.length; i++) CASTLING[i] = random();
+        for (int i = 0; i < EP_FILE.length; i++) EP_FILE[i] = random();
+        BLACK_TO_MOVE = random();
+    }
+
+    private Zobrist() {
+    }
+
+    static long piece(int piece, int square) {
+        return PIECE_SQUARE[(piece << 6) | square];
+    }
+
+    private static long random() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -1,5 +1,9 @@
 package com.chadharangam.gameservice.entity;
 
+import com.chadharangam.gameservice.engine.Fen;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 
 @Entity
@@ -13,12 +17,39 @@ public class Game {
     private Long whitePlayerId;
     private Long blackPlayerId;
 
-    @Column(length = 200)
-    private String fen;
+    @Column(length = Fen.MAX_LENGTH)
+    private String fen; // canonical FEN, rewritten in place after every move
 
-    private String status; // ONGOING, CHECKMATE, DRAW
+    private String status; // ONGOING, CHECKMATE, TIMEOUT, DRAW (stalemate, insufficient material, threefold, fifty-move)
 
-    private String turn; // WHITE or BLACK
+    private String turn; // WHITE or BLACK; once finished, the side that was mated or flagged
+
+    // Clocks; all null for untimed games. Remaining times are as of lastMoveAt (epoch millis),
+    // so the side to move really has its time minus (now - lastMoveAt).
+    private String timeControl;
+    private Long whiteTimeMs;
+    private Long blackTimeMs;
+    private Long incrementMs;
+    private Long lastMoveAt;
+
+    private int plyCount; // half-moves played; the next Move row gets plyCount + 1
+
+    // Epoch millis; null on rows from before they were recorded.
+    private Long createdAt;
+    private Long finishedAt;
+
+    // Zobrist hash of the current position; serialized as a string since it does not fit a JS number.
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long positionHash;
+
+    @Version
+    private long version;
+
+    // Finished games only: the whole move list packed by GameArchive; its moves rows are deleted.
+    @Lob
+    @Column(length = 65535)
+    @JsonIgnore
+    private byte[] archive;
 
     // ===== Getters & Setters =====
 
@@ -26,6 +57,10 @@ public class Game {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Long getWhitePlayerId() {
         return whitePlayerId;
     }
@@ -65,4 +100,122 @@ public class Game {
     public void setTurn(String turn) {
         this.turn = turn;
     }
+
+    public String getTimeControl() {
+        return timeControl;
+    }
+
+    public void setTimeControl(String timeControl) {
+        this.timeControl = timeControl;
+    }
+
+    public Long getWhiteTimeMs() {
+        return whiteTimeMs;
+    }
+
+    public void setWhiteTimeMs(Long whiteTimeMs) {
+        this.whiteTimeMs = whiteTimeMs;
+    }
+
+    public Long getBlackTimeMs() {
+        return blackTimeMs;
+    }
+
+    public void setBlackTimeMs(Long blackTimeMs) {
+        this.blackTimeMs = blackTimeMs;
+    }
+
+    public Long getIncrementMs() {
+        return incrementMs;
+    }
+
+    public void setIncrementMs(Long incrementMs) {
+        this.incrementMs = incrementMs;
+    }
+
+    public Long getLastMoveAt() {
+        return lastMoveAt;
+    }
+
+    public void setLastMoveAt(Long lastMoveAt) {
+        this.lastMoveAt = lastMoveAt;
+    }
+
+    /** Epoch millis at which the side to move runs out of time, or {@code null} if untimed. */
+    @JsonIgnore
+    public Long getFlagDeadline() {
+        if (lastMoveAt == null) return null;
+        return lastMoveAt + ("WHITE".equals(turn) ? whiteTimeMs : blackTimeMs);
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public int getPlyCount() {
+        return plyCount;
+    }
+
+    public void setPlyCount(int plyCount) {
+        this.plyCount = plyCount;
+    }
+
+    public Long getPositionHash() {
+        return positionHash;
+    }
+
+    public void setPositionHash(Long positionHash) {
+        this.positionHash = positionHash;
+    }
+
+    public byte[] getArchive() {
+        return archive;
+    }
+
+    public void setArchive(byte[] archive) {
+        this.archive = archive;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /** Detached copy, used to hand cached state to JPA or Jackson without sharing the live instance. */
+    public Game snapshot() {
+        Game copy = new Game();
+        copy.id = id;
+        copy.whitePlayerId = whitePlayerId;
+        copy.blackPlayerId = blackPlayerId;
+        copy.fen = fen;
+        copy.status = status;
+        copy.turn = turn;
+        copy.timeControl = timeControl;
+        copy.whiteTimeMs = whiteTimeMs;
+        copy.blackTimeMs = blackTimeMs;
+        copy.incrementMs = incrementMs;
+        copy.lastMoveAt = lastMoveAt;
+        copy.plyCount = plyCount;
+        copy.createdAt = createdAt;
+        copy.finishedAt = finishedAt;
+        copy.positionHash = positionHash;
+        copy.version = version;
+        copy.archive = archive;
+        return copy;
+    }
 }
@@ -3,22 +3,40 @@ package com.chadharangam.gameservice.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "moves")
+@Table(
+        name = "moves",
+        // Also serves as the (game_id, move_number) index for history reads.
+        uniqueConstraints = @UniqueConstraint(name = "uk_moves_game_move", columnNames = {"game_id", "move_number"})
+)
 public class Move {
 
+    // Pooled ids (a table-backed sequence on MySQL) keep Hibernate JDBC batching enabled;
+    // IDENTITY forces one INSERT round trip per row.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "move_seq")
+    @SequenceGenerator(name = "move_seq", sequenceName = "move_seq", allocationSize = 50)
     private Long id;
 
     private Long gameId;
+
+    @Column(length = 2)
     private String fromSquare;
+
+    @Column(length = 2)
     private String toSquare;
+
     private int moveNumber;
 
+    private Short packedMove; // engine Move encoding (from, to, flags); null on rows written before it existed
+
     public Long getId() {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Long getGameId() {
         return gameId;
     }
@@ -50,4 +68,12 @@ public class Move {
     public void setMoveNumber(int moveNumber) {
         this.moveNumber = moveNumber;
     }
+
+    public Short getPackedMove() {
+        return packedMove;
+    }
+
+    public void setPackedMove(Short packedMove) {
+        this.packedMove = packedMove;
+    }
 }
@@ -0,0 +1,112 @@
+package com.chadharangam.gameservice.lane;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Striped single-writer executor: every game is pinned to one of a fixed number of lanes, and
+ * each lane runs its tasks one at a time on its own thread. Work for one game is therefore
+ * applied strictly in arrival order, while different games spread across all lanes.
+ */
+@Component
+public class GameLanes {
+
+    private final Lane[] lanes;
+
+    public GameLanes(
+            MeterRegistry registry,
+            @Value("${game.lanes.count:0}") int count,
+            @Value("${game.lanes.queue-capacity:10000}") int queueCapacity) {
+        int n = count > 0 ? count : Runtime.getRuntime().availableProcessors();
+        this.lanes = new Lane[n];
+        for (int i = 0; i < n; i++) {
+            lanes[i] = new Lane(i, queueCapacity, registry);
+        }
+    }
+
+    /** Runs {@code task} on the game's lane; the future fails if the lane's queue is full. */
+    public <T> CompletableFuture<T> submit(Long gameId, Supplier<T> task) {
+        Lane lane = lanes[laneOf(gameId)];
+        long enqueued = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            lane.executor.execute(() -> {
+                long started = System.nanoTime();
+                lane.waitTime.record(started - enqueued, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(task.get());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    lane.runTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            lane.rejected.increment();
+            result.completeExceptionally(new RuntimeException("Too many pending moves, try again"));
+        }
+        return result;
+    }
+
+    public void execute(Long gameId, Runnable task) {
+        submit(gameId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    int laneOf(Long gameId) {
+        // Fibonacci hashing so sequential ids do not cluster on neighbouring lanes.
+        long h = gameId * 0x9E3779B97F4A7C15L;
+        return (int) ((h >>> 32) * lanes.length >>> 32);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (Lane lane : lanes) lane.executor.shutdown();
+        for (Lane lane : lanes) lane.executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static final class Lane {
+
+        final ThreadPoolExecutor executor;
+        final Timer waitTime;
+        final Timer runTime;
+        final Counter rejected;
+
+        Lane(int index, int queueCapacity, MeterRegistry registry) {
+            executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), r -> {
+                        Thread t = new Thread(r, "game-lane-" + index);
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+            Tags tags = Tags.of("lane", Integer.toString(index));
+            registry.gauge("game.lanes.queue.depth", tags, executor, e -> e.getQueue().size());
+            waitTime = Timer.builder("game.lanes.wait")
+                    .description("Time a task queued behind earlier work on its lane")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+            runTime = Timer.builder("game.lanes.run")
+                    .description("Time a task ran on its lane")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+            rejected = registry.counter("game.lanes.rejected", tags);
+        }
+    }
+}
@@ -1,7 +1,20 @@
 package com.chadharangam.gameservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import com.chadharangam.gameservice.entity.Game;
 
+import java.util.List;
+
 public interface GameRepository extends JpaRepository<Game, Long> {
+
+    /** Flag deadlines of every timed ONGOING game, used to re-arm clocks after a restart. */
+    @Query("select g.id as id, g.lastMoveAt + (case when g.turn = 'WHITE' then g.whiteTimeMs else g.blackTimeMs end) as flagDeadline"
+            + " from Game g where g.status = 'ONGOING' and g.lastMoveAt is not null")
+    List<FlagDeadline> findOngoingFlagDeadlines();
+
+    interface FlagDeadline {
+        Long getId();
+        Long getFlagDeadline();
+    }
 }
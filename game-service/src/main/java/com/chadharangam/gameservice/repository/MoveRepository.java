@@ -1,9 +1,17 @@
 package com.chadharangam.gameservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.chadharangam.gameservice.entity.Move;
 import java.util.List;
 
 public interface MoveRepository extends JpaRepository<Move, Long> {
-    List<Move> findByGameId(Long gameId);
+    List<Move> findByGameIdOrderByMoveNumberAsc(Long gameId);
+    long countByGameId(Long gameId);
+
+    @Modifying
+    @Query("delete from Move m where m.gameId = :gameId")
+    int deleteAllByGameId(@Param("gameId") Long gameId);
 }
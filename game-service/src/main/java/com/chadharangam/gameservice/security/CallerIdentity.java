@@ -0,0 +1,10 @@
+package com.chadharangam.gameservice.security;
+
+/**
+ * The signed-in caller as the gateway vouched for it, set by {@link IdentityFilter}. Absent on
+ * requests that did not come through the gateway (service-to-service calls, tests).
+ */
+public record CallerIdentity(long playerId, String username, Integer rating) {
+
+    public static final String ATTRIBUTE = "com.chadharangam.gameservice.security.CallerIdentity";
+}
@@ -0,0 +1,100 @@
+package com.chadharangam.gameservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Reads the identity headers the gateway adds after validating the token and exposes them as a
+ * {@link CallerIdentity} request attribute. The check is one HMAC over a few dozen bytes with
+ * the shared {@code identity.secret}; there is no token parsing and no user-service lookup.
+ * The signature covers the issue time too, and headers more than {@link #MAX_AGE_MS} from it
+ * are refused, so a captured set cannot be replayed later. Headers with a bad or stale
+ * signature are rejected; without a secret they are ignored. The signed string must match the
+ * gateway's {@code IdentityHeaders}; matchmaking-service verifies the same scheme.
+ */
+@Component
+public class IdentityFilter extends OncePerRequestFilter {
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String USER_NAME = "X-User-Name";
+    public static final String USER_RATING = "X-User-Rating";
+    public static final String ISSUED_AT = "X-User-Issued-At";
+    public static final String SIGNATURE = "X-User-Signature";
+
+    static final long MAX_AGE_MS = 60_000;
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public IdentityFilter(@Value("${identity.secret:}") String secret) {
+        this.key = secret.isBlank() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String signature = request.getHeader(SIGNATURE);
+        if (signature != null && key != null) {
+            CallerIdentity caller = verify(request.getHeader(USER_ID), request.getHeader(USER_NAME),
+                    request.getHeader(USER_RATING), request.getHeader(ISSUED_AT), signature,
+                    System.currentTimeMillis());
+            if (caller == null) {
+                response.sendError(HttpStatus.UNAUTHORIZED.value(), "Invalid identity headers");
+                return;
+            }
+            request.setAttribute(CallerIdentity.ATTRIBUTE, caller);
+        }
+        chain.doFilter(request, response);
+    }
+
+    CallerIdentity verify(String id, String name, String rating, String issuedAt, String signature, long nowMs) {
+        if (id == null || name == null || issuedAt == null) return null;
+        String ratingValue = rating == null ? "" : rating;
+        byte[] actual;
+        try {
+            if (Math.abs(nowMs - Long.parseLong(issuedAt)) > MAX_AGE_MS) return null;
+            actual = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        byte[] expected = Arrays.copyOf(
+                macs.get().doFinal((id + '\n' + name + '\n' + ratingValue + '\n' + issuedAt)
+                        .getBytes(StandardCharsets.UTF_8)),
+                SIGNATURE_BYTES);
+        if (!MessageDigest.isEqual(expected, actual)) return null;
+        try {
+            return new CallerIdentity(Long.parseLong(id), URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    ratingValue.isEmpty() ? null : Integer.valueOf(ratingValue));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("HmacSHA256 unavailable", e);
+        }
+    }
+}
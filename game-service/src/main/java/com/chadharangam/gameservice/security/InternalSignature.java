@@ -0,0 +1,87 @@
+package com.chadharangam.gameservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Signs and checks service-to-service calls to {@code /internal/**}: an HMAC with the shared
+ * {@code identity.secret} over the timestamp, path and body, the same scheme as the gateway's
+ * identity headers. A signature is good for {@link #MAX_AGE_MS} either side of its timestamp.
+ * game-service and notification-service each carry this class; the two must sign the same way.
+ */
+@Component
+public class InternalSignature {
+
+    public static final String TIMESTAMP = "X-Internal-Timestamp";
+    public static final String SIGNATURE = "X-Internal-Signature";
+
+    static final long MAX_AGE_MS = 60_000;
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public InternalSignature(@Value("${identity.secret:}") String secret) {
+        this.key = secret.isBlank() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /** False without a secret: nothing can be signed, and nothing is accepted. */
+    public boolean enabled() {
+        return key != null;
+    }
+
+    /** Headers for a JSON POST of {@code body} to {@code path}, signed now. */
+    public HttpHeaders headersFor(String path, byte[] body) {
+        long now = System.currentTimeMillis();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(TIMESTAMP, Long.toString(now));
+        headers.set(SIGNATURE, sign(now, path, body));
+        return headers;
+    }
+
+    public boolean verify(String timestamp, String signature, String path, byte[] body, long nowMs) {
+        if (key == null || timestamp == null || signature == null) return false;
+        long signedAt;
+        byte[] actual;
+        try {
+            signedAt = Long.parseLong(timestamp);
+            actual = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (Math.abs(nowMs - signedAt) > MAX_AGE_MS) return false;
+        return MessageDigest.isEqual(mac(signedAt, path, body), actual);
+    }
+
+    String sign(long timestampMs, String path, byte[] body) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac(timestampMs, path, body));
+    }
+
+    private byte[] mac(long timestampMs, String path, byte[] body) {
+        Mac mac = macs.get();
+        mac.update((timestampMs + "\n" + path + "\n").getBytes(StandardCharsets.UTF_8));
+        return Arrays.copyOf(mac.doFinal(body), SIGNATURE_BYTES);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("HmacSHA256 unavailable", e);
+        }
+    }
+}
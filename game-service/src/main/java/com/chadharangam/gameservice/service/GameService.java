@@ -1,45 +1,186 @@
 package com.chadharangam.gameservice.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import com.chadharangam.gameservice.cache.FinishedGames;
+import com.chadharangam.gameservice.cache.GameCache;
+import com.chadharangam.gameservice.cache.GameState;
+import com.chadharangam.gameservice.clock.GameClocks;
+import com.chadharangam.gameservice.clock.TimeControl;
+import com.chadharangam.gameservice.dto.CreateGameRequest;
+import com.chadharangam.gameservice.dto.MoveEvent;
+import com.chadharangam.gameservice.engine.Fen;
+import com.chadharangam.gameservice.engine.GameArchive;
+import com.chadharangam.gameservice.engine.MoveGenerator;
+import com.chadharangam.gameservice.engine.Piece;
+import com.chadharangam.gameservice.engine.Position;
+import com.chadharangam.gameservice.engine.Square;
 import com.chadharangam.gameservice.entity.Game;
 import com.chadharangam.gameservice.entity.Move;
+import com.chadharangam.gameservice.lane.GameLanes;
 import com.chadharangam.gameservice.repository.GameRepository;
 import com.chadharangam.gameservice.repository.MoveRepository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class GameService {
 
+    private static final Logger log = LoggerFactory.getLogger(GameService.class);
+
+    private static final long START_HASH = Fen.parse(Position.START_FEN).hash();
+
     private final GameRepository gameRepo;
     private final MoveRepository moveRepo;
+    private final GameCache cache;
+    private final FinishedGames finished;
+    private final GameClocks clocks;
+    private final GameLanes lanes;
+    private final MovePublisher publisher;
 
-    public GameService(GameRepository gameRepo, MoveRepository moveRepo) {
+    public GameService(GameRepository gameRepo, MoveRepository moveRepo, GameCache cache, FinishedGames finished,
+                       GameClocks clocks, GameLanes lanes, MovePublisher publisher) {
         this.gameRepo = gameRepo;
         this.moveRepo = moveRepo;
+        this.cache = cache;
+        this.finished = finished;
+        this.clocks = clocks;
+        this.lanes = lanes;
+        this.publisher = publisher;
     }
 
     public Game createGame(Long whiteId, Long blackId) {
+        return createGame(whiteId, blackId, null);
+    }
+
+    /** Creates a game; a recognised {@code timeControl} starts White's clock immediately. */
+    public Game createGame(Long whiteId, Long blackId, String timeControl) {
+        return start(gameRepo.save(newGame(whiteId, blackId, timeControl)));
+    }
+
+    /**
+     * Creates several games with one repository call, in request order. Matchmaking sends every
+     * pairing of a sweep here at once rather than one HTTP call and transaction per game.
+     */
+    public List<Game> createGames(List<CreateGameRequest> requests) {
+        List<Game> games = new ArrayList<>(requests.size());
+        for (CreateGameRequest r : requests) {
+            if (r.whitePlayerId == null || r.blackPlayerId == null) {
+                throw new RuntimeException("Missing player id");
+            }
+            games.add(newGame(r.whitePlayerId, r.blackPlayerId, r.timeControl));
+        }
+
+        List<Game> created = new ArrayList<>(games.size());
+        for (Game saved : gameRepo.saveAll(games)) {
+            created.add(start(saved));
+        }
+        return created;
+    }
 
+    private Game newGame(Long whiteId, Long blackId, String timeControl) {
         Game game = new Game();
         game.setWhitePlayerId(whiteId);
         game.setBlackPlayerId(blackId);
-        game.setFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        game.setFen(Position.START_FEN);
+        game.setPositionHash(START_HASH);
         game.setStatus("ONGOING");
         game.setTurn("WHITE");
+        long now = clocks.now();
+        game.setCreatedAt(now);
 
-        return gameRepo.save(game);
+        TimeControl tc = TimeControl.parse(timeControl);
+        if (tc != null) {
+            game.setTimeControl(timeControl.trim().toUpperCase());
+            game.setWhiteTimeMs(tc.initialMs());
+            game.setBlackTimeMs(tc.initialMs());
+            game.setIncrementMs(tc.incrementMs());
+            game.setLastMoveAt(now);
+        }
+        return game;
     }
 
-    public Game getGame(Long gameId) {
-        return gameRepo.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+    private Game start(Game saved) {
+        GameState state = cache.add(saved);
+        synchronized (state) {
+            armFlag(state);
+            return saved.snapshot();
+        }
     }
 
-    public Game makeMove(Long gameId, Long playerId, String from, String to) {
+    /** Ongoing games come from the hot cache, archived finished ones from {@link FinishedGames}. */
+    public Game getGame(Long gameId) {
+        GameState state = cache.peek(gameId);
+        if (state != null) {
+            synchronized (state) {
+                if (!state.isEvicted()) return state.getGame().snapshot();
+            }
+        }
+        Game done = finished.get(gameId);
+        if (done != null) return done.snapshot();
 
         Game game = gameRepo.findById(gameId)
                 .orElseThrow(() -> new RuntimeException("Game not found"));
+        finished.offer(game);
+        return game;
+    }
+
+    /**
+     * Queues a move on the game's lane, so moves for one game (double clicks, gateway retries)
+     * are applied one after another in arrival order without holding a request thread.
+     */
+    public CompletableFuture<Game> submitMove(Long gameId, Long playerId, String from, String to, String promotion) {
+        return lanes.submit(gameId, () -> makeMove(gameId, playerId, from, to, promotion));
+    }
+
+    public Game makeMove(Long gameId, Long playerId, String from, String to, String promotion) {
+        while (true) {
+            GameState state = cache.getOngoing(gameId);
+            Game result;
+            MoveEvent event = null;
+            synchronized (state) {
+                if (state.isEvicted()) continue;
+                int before = state.getMoveCount();
+                result = applyMove(state, gameId, playerId, from, to, promotion);
+                // No ply was added when the mover's flag had already fallen.
+                if (state.getMoveCount() > before) event = moveEvent(state, result, playerId);
+            }
+            if (!"ONGOING".equals(result.getStatus())) {
+                cache.finish(state);
+            }
+            if (event != null) {
+                publisher.publish(event);
+            }
+            return result;
+        }
+    }
+
+    private static MoveEvent moveEvent(GameState state, Game game, Long playerId) {
+        Move played = state.lastPendingMove();
+        MoveEvent event = new MoveEvent();
+        event.gameId = game.getId();
+        event.playerId = playerId;
+        event.from = played.getFromSquare();
+        event.to = played.getToSquare();
+        event.fen = game.getFen();
+        event.moveNumber = played.getMoveNumber();
+        event.status = game.getStatus();
+        event.move = played.getPackedMove() & 0xFFFF;
+        if (game.getLastMoveAt() != null) {
+            // The turn has already passed to the opponent.
+            event.clockMs = "WHITE".equals(game.getTurn()) ? game.getBlackTimeMs() : game.getWhiteTimeMs();
+        }
+        return event;
+    }
+
+    private Game applyMove(GameState state, Long gameId, Long playerId, String from, String to, String promotion) {
+
+        Game game = state.getGame();
 
         if (!"ONGOING".equals(game.getStatus())) {
             throw new RuntimeException("Game is finished");
@@ -54,26 +195,206 @@ public class GameService {
             throw new RuntimeException("Not BLACK player's turn");
         }
 
-        int moveCount = moveRepo.findByGameId(gameId).size() + 1;
+        long now = clocks.now();
+        if (flagFell(game, now)) {
+            // The move arrived after the mover's flag fell; the wheel just hasn't caught up yet.
+            timeout(state, now);
+            return game.snapshot();
+        }
+
+        Position position = state.getPosition();
+
+        int fromSquare = Square.parse(from);
+        int toSquare = Square.parse(to);
+        if (fromSquare == Square.NONE || toSquare == Square.NONE) {
+            throw new IllegalMoveException("Invalid square");
+        }
+
+        int legalMove = MoveGenerator.findLegal(position, fromSquare, toSquare, promotionType(promotion));
+        if (legalMove == com.chadharangam.gameservice.engine.Move.NONE) {
+            throw new IllegalMoveException("Illegal move");
+        }
 
         Move move = new Move();
         move.setGameId(gameId);
         move.setFromSquare(from);
         move.setToSquare(to);
-        move.setMoveNumber(moveCount);
+        move.setMoveNumber(state.getMoveCount() + 1);
+        move.setPackedMove((short) legalMove);
 
-        moveRepo.save(move);
+        if (game.getLastMoveAt() != null) {
+            long spent = now - game.getLastMoveAt();
+            if ("WHITE".equals(game.getTurn())) {
+                game.setWhiteTimeMs(game.getWhiteTimeMs() - spent + game.getIncrementMs());
+            } else {
+                game.setBlackTimeMs(game.getBlackTimeMs() - spent + game.getIncrementMs());
+            }
+            game.setLastMoveAt(now);
+        }
 
-        // TEMP FEN UPDATE
-        game.setFen(game.getFen() + " | " + from + "-" + to);
+        position.play(legalMove);
+        game.setFen(Fen.update(game.getFen(), position, legalMove));
+        game.setPositionHash(position.hash());
+        state.getHistory().push(position.hash(), position.halfmoveClock());
 
         // SWITCH TURN
-        game.setTurn(game.getTurn().equals("WHITE") ? "BLACK" : "WHITE");
+        game.setTurn(position.sideToMove() == Piece.WHITE ? "WHITE" : "BLACK");
+
+        if (!MoveGenerator.hasLegalMove(position)) {
+            game.setStatus(position.isInCheck() ? "CHECKMATE" : "DRAW");
+        } else if (position.isInsufficientMaterial()
+                || position.halfmoveClock() >= 100
+                || state.getHistory().repetitions() >= 3) {
+            // Nobody can claim a draw through the API, so threefold and fifty-move end the game outright.
+            game.setStatus("DRAW");
+        }
+        if (!"ONGOING".equals(game.getStatus())) game.setFinishedAt(now);
+
+        state.recordMove(move);
+        armFlag(state);
+        return game.snapshot();
+    }
+
+    // ===== Clocks =====
+
+    /**
+     * Wheel callback for a flag deadline, run on the game's lane. The deadline may be stale (a move was made since, or
+     * the game ended); the check under the game lock decides.
+     */
+    void checkFlag(Long gameId) {
+        while (true) {
+            GameState state;
+            try {
+                state = cache.getOngoing(gameId);
+            } catch (RuntimeException finishedOrMissing) {
+                return;
+            }
+            synchronized (state) {
+                if (state.isEvicted()) continue;
+                long now = clocks.now();
+                if (!"ONGOING".equals(state.getGame().getStatus()) || !flagFell(state.getGame(), now)) return;
+                timeout(state, now);
+            }
+            cache.finish(state);
+            return;
+        }
+    }
+
+    /** Restarts flag timers for timed games left ONGOING by a previous run. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rearmClocks() {
+        List<GameRepository.FlagDeadline> deadlines = gameRepo.findOngoingFlagDeadlines();
+        for (GameRepository.FlagDeadline d : deadlines) {
+            Long gameId = d.getId();
+            clocks.schedule(d.getFlagDeadline(), () -> lanes.execute(gameId, () -> checkFlag(gameId)));
+        }
+        log.info("Re-armed {} game clocks", deadlines.size());
+    }
+
+    private void armFlag(GameState state) {
+        Game game = state.getGame();
+        Long deadline = game.getFlagDeadline();
+        if (deadline == null || !"ONGOING".equals(game.getStatus())) {
+            state.setFlagTimer(null);
+            return;
+        }
+        Long gameId = game.getId();
+        state.setFlagTimer(clocks.schedule(deadline, () -> lanes.execute(gameId, () -> checkFlag(gameId))));
+    }
 
-        return gameRepo.save(game);
+    private static boolean flagFell(Game game, long now) {
+        Long deadline = game.getFlagDeadline();
+        return deadline != null && now >= deadline;
+    }
+
+    private static void timeout(GameState state, long now) {
+        Game game = state.getGame();
+        boolean white = "WHITE".equals(game.getTurn());
+        if (white) game.setWhiteTimeMs(0L);
+        else game.setBlackTimeMs(0L);
+        game.setLastMoveAt(now);
+
+        // Flagging against a bare king cannot lose: the opponent has no way to mate.
+        Position position = state.getPosition();
+        int opponent = white ? Piece.BLACK : Piece.WHITE;
+        boolean bareKing = true;
+        for (int type = Piece.PAWN; type < Piece.KING; type++) {
+            if (position.pieces(opponent, type) != 0) bareKing = false;
+        }
+        game.setStatus(bareKing ? "DRAW" : "TIMEOUT");
+        game.setFinishedAt(now);
+        state.setFlagTimer(null);
+        state.markDirty();
     }
 
     public List<Move> getMoveHistory(Long gameId) {
-        return moveRepo.findByGameId(gameId);
+        // Moves still inside the write-behind window are not in MySQL yet. Snapshot them
+        // before reading MySQL; drained moves count until their flush commits, so a flush in
+        // between cannot make them disappear. A finishing game's moves are in flight to its archive.
+        List<Move> pending = null;
+        boolean finishing = false;
+        GameState state = cache.peek(gameId);
+        if (state != null) {
+            synchronized (state) {
+                finishing = state.isEvicted() && state.hasMovesInFlight();
+                if (!state.isEvicted() || finishing) pending = state.pendingMoves();
+            }
+        }
+
+        if (pending == null) {
+            Game game = finished.get(gameId);
+            if (game == null) {
+                game = gameRepo.findById(gameId).orElse(null);
+                finished.offer(game);
+            }
+            if (game != null && game.getArchive() != null) {
+                return decodeArchive(game);
+            }
+            pending = List.of();
+        }
+
+        List<Move> moves = new ArrayList<>(moveRepo.findByGameIdOrderByMoveNumberAsc(gameId));
+        int flushed = moves.size();
+        for (Move move : pending) {
+            if (move.getMoveNumber() > flushed) moves.add(move);
+        }
+
+        boolean gap = moves.isEmpty() || moves.get(0).getMoveNumber() != 1;
+        if (gap && (state == null || finishing)) {
+            // The game may have been compacted between the two reads above.
+            Game game = gameRepo.findById(gameId).orElse(null);
+            finished.offer(game);
+            if (game != null && game.getArchive() != null) {
+                return decodeArchive(game);
+            }
+        }
+        return moves;
+    }
+
+    private static List<Move> decodeArchive(Game game) {
+        int[] packed = GameArchive.decode(game.getArchive());
+        List<Move> moves = new ArrayList<>(packed.length);
+        for (int i = 0; i < packed.length; i++) {
+            Move move = new Move();
+            move.setGameId(game.getId());
+            move.setFromSquare(Square.name(com.chadharangam.gameservice.engine.Move.from(packed[i])));
+            move.setToSquare(Square.name(com.chadharangam.gameservice.engine.Move.to(packed[i])));
+            move.setMoveNumber(i + 1);
+            move.setPackedMove((short) packed[i]);
+            moves.add(move);
+        }
+        return moves;
+    }
+
+    // Queen when omitted; otherwise one of q, r, b, n in either case.
+    private static int promotionType(String promotion) {
+        if (promotion == null || promotion.isBlank()) return Piece.QUEEN;
+        return switch (promotion.trim().toLowerCase()) {
+            case "q" -> Piece.QUEEN;
+            case "r" -> Piece.ROOK;
+            case "b" -> Piece.BISHOP;
+            case "n" -> Piece.KNIGHT;
+            default -> throw new IllegalMoveException("Invalid promotion");
+        };
     }
 }
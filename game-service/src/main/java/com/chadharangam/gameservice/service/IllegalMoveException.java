@@ -0,0 +1,13 @@
+package com.chadharangam.gameservice.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** A move the rules refuse: an unknown square or promotion piece, or not legal in the position. */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class IllegalMoveException extends RuntimeException {
+
+    public IllegalMoveException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,111 @@
+package com.chadharangam.gameservice.service;
+
+import com.chadharangam.gameservice.dto.MoveEvent;
+import com.chadharangam.gameservice.security.InternalSignature;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Tells notification-service about accepted moves, so only moves the server validated reach
+ * the per-game topics. Events are queued from the move lanes; one thread sends whatever has
+ * accumulated (up to {@code game.notify.batch-size}) with a single POST. A failed batch is
+ * dropped, and so are events that find the queue ({@code game.notify.queue-capacity}) full
+ * while notification-service is slow: clients still catch up from the move history. Batches
+ * are signed with {@link InternalSignature}; an empty {@code game.notify.url}, or no
+ * {@code identity.secret}, turns publishing off.
+ */
+@Component
+public class MovePublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(MovePublisher.class);
+
+    private static final String MOVES_PATH = "/internal/notifications/moves";
+
+    private final RestTemplate restTemplate;
+    private final InternalSignature signature;
+    private final ObjectMapper json;
+    private final String notificationServiceUrl;
+    private final int maxBatch;
+    private final BlockingQueue<MoveEvent> queue;
+    private final Thread worker;
+    private final Counter dropped;
+
+    public MovePublisher(
+            RestTemplate restTemplate,
+            InternalSignature signature,
+            ObjectMapper json,
+            MeterRegistry registry,
+            @Value("${game.notify.url:http://notification-service}") String notificationServiceUrl,
+            @Value("${game.notify.batch-size:256}") int maxBatch,
+            @Value("${game.notify.queue-capacity:10000}") int queueCapacity) {
+        this.restTemplate = restTemplate;
+        this.signature = signature;
+        this.json = json;
+        this.notificationServiceUrl = notificationServiceUrl;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropped = registry.counter("game.notify.dropped");
+        if (notificationServiceUrl.isBlank()) {
+            this.worker = null;
+            return;
+        }
+        if (!signature.enabled()) {
+            log.warn("identity.secret is not set; moves will not be pushed to notification-service");
+            this.worker = null;
+            return;
+        }
+        this.worker = new Thread(this::run, "move-publisher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public void publish(MoveEvent event) {
+        if (worker == null) return;
+        if (!queue.offer(event)) {
+            dropped.increment();
+            // Once per thousand, so a stalled notification-service does not flood the log as well.
+            if ((long) dropped.count() % 1000 == 1) {
+                log.warn("Notification queue is full; dropped {} move events so far", (long) dropped.count());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (worker != null) worker.interrupt();
+    }
+
+    private void run() {
+        List<MoveEvent> batch = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            try {
+                byte[] body = json.writeValueAsBytes(batch);
+                restTemplate.postForLocation(notificationServiceUrl + MOVES_PATH,
+                        new HttpEntity<>(body, signature.headersFor(MOVES_PATH, body)));
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.warn("Publishing {} move events failed", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+}
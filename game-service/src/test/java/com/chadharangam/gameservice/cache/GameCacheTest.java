@@ -0,0 +1,200 @@
+package com.chadharangam.gameservice.cache;
+
+import com.chadharangam.gameservice.engine.GameArchive;
+import com.chadharangam.gameservice.entity.Game;
+import com.chadharangam.gameservice.entity.Move;
+import com.chadharangam.gameservice.repository.GameRepository;
+import com.chadharangam.gameservice.repository.MoveRepository;
+import com.chadharangam.gameservice.service.GameFixture;
+import com.chadharangam.gameservice.service.GameService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameCacheTest {
+
+    private GameFixture fixture;
+    private GameRepository gameRepo;
+    private MoveRepository moveRepo;
+    private SimpleMeterRegistry registry;
+    private GameCache cache;
+    private GameService service;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new GameFixture();
+        gameRepo = fixture.gameRepo;
+        moveRepo = fixture.moveRepo;
+        registry = fixture.registry;
+        cache = fixture.cache;
+        service = fixture.service;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        fixture.shutdown();
+    }
+
+    @Test
+    void movesStayInMemoryUntilTheFlush() {
+        service.createGame(10L, 20L);
+        service.makeMove(1L, 10L, "e2", "e4", null);
+        service.makeMove(1L, 20L, "e7", "e5", null);
+
+        verify(moveRepo, never()).saveAll(anyList());
+        assertEquals(2, registry.counter("game.cache.requests", "result", "hit").count());
+        assertEquals(2, service.getMoveHistory(1L).size());
+
+        cache.flush();
+
+        verify(moveRepo, times(1)).saveAll(anyList());
+        verify(gameRepo, times(1)).saveAll(anyList());
+        assertEquals(1, registry.timer("game.cache.flush.lag").count());
+    }
+
+    @Test
+    void movesBeingFlushedStayInTheHistory() {
+        service.createGame(10L, 20L);
+        service.makeMove(1L, 10L, "e2", "e4", null);
+        service.makeMove(1L, 20L, "e7", "e5", null);
+        List<Integer> seen = new ArrayList<>();
+        // Read while the flush has drained the moves but not committed them.
+        when(moveRepo.saveAll(anyList())).thenAnswer(inv -> {
+            seen.add(service.getMoveHistory(1L).size());
+            return inv.getArgument(0);
+        });
+
+        cache.flush();
+
+        assertEquals(List.of(2), seen);
+        assertEquals(List.of(), cache.peek(1L).pendingMoves());
+    }
+
+    @Test
+    void finishedGameIsWrittenSynchronouslyAndDropped() {
+        Game mated = GameFixture.foolsMate(service);
+
+        assertEquals("CHECKMATE", mated.getStatus());
+        assertNull(cache.peek(1L));
+
+        // Finished games skip the moves table: the plies are packed into games.archive.
+        ArgumentCaptor<Game> saved = ArgumentCaptor.forClass(Game.class);
+        verify(gameRepo, times(2)).save(saved.capture());
+        verify(moveRepo, never()).saveAll(anyList());
+        verify(moveRepo).deleteAllByGameId(1L);
+
+        when(gameRepo.findById(1L)).thenReturn(Optional.of(saved.getValue()));
+        List<Move> history = service.getMoveHistory(1L);
+        assertEquals(4, history.size());
+        assertEquals("d8", history.get(3).getFromSquare());
+        assertEquals("h4", history.get(3).getToSquare());
+    }
+
+    @Test
+    void flushBetweenTheFinishingMoveAndFinishKeepsTheArchive() {
+        GameCache racing = spy(cache);
+        doAnswer(inv -> {
+            cache.flush();
+            return inv.callRealMethod();
+        }).when(racing).finish(any());
+
+        GameFixture.foolsMate(fixture.serviceWith(racing));
+
+        // Compacted once, by the flush; finish() finds it already written.
+        ArgumentCaptor<Game> saved = ArgumentCaptor.forClass(Game.class);
+        verify(gameRepo, times(2)).save(saved.capture());
+        verify(moveRepo, times(1)).deleteAllByGameId(1L);
+        assertEquals("CHECKMATE", saved.getValue().getStatus());
+        assertEquals(4, GameArchive.decode(saved.getValue().getArchive()).length);
+        assertNull(cache.peek(1L));
+    }
+
+    @Test
+    void finishedGamesAreReadFromMySqlOnce() {
+        GameFixture.foolsMate(service);
+        ArgumentCaptor<Game> saved = ArgumentCaptor.forClass(Game.class);
+        verify(gameRepo, times(2)).save(saved.capture());
+        when(gameRepo.findById(1L)).thenReturn(Optional.of(saved.getValue()));
+        clearInvocations(gameRepo, moveRepo);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("CHECKMATE", service.getGame(1L).getStatus());
+            assertEquals(4, service.getMoveHistory(1L).size());
+        }
+
+        verify(gameRepo, times(1)).findById(1L);
+        verify(moveRepo, never()).findByGameIdOrderByMoveNumberAsc(any());
+    }
+
+    @Test
+    void rejectedMoveLeavesNothingToFlush() {
+        service.createGame(10L, 20L);
+        RuntimeException rejected = assertThrows(RuntimeException.class,
+                () -> service.makeMove(1L, 10L, "e2", "e5", null));
+        assertEquals("Illegal move", rejected.getMessage());
+
+        cache.flush();
+
+        verify(moveRepo, never()).saveAll(anyList());
+        assertEquals(List.of(), service.getMoveHistory(1L));
+    }
+
+    @Test
+    void constraintViolationsKeepThePendingMoves() {
+        service.createGame(10L, 20L);
+        service.makeMove(1L, 10L, "e2", "e4", null);
+        when(moveRepo.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        cache.flush();
+
+        assertEquals(1, cache.peek(1L).pendingMoves().size());
+        assertEquals(1, service.getMoveHistory(1L).size());
+        assertEquals(0, registry.counter("game.cache.flush.conflicts").count());
+    }
+
+    @Test
+    void aConflictOnlyDiscardsMovesAnotherWriterCommitted() {
+        service.createGame(10L, 20L);
+        service.makeMove(1L, 10L, "e2", "e4", null);
+        when(gameRepo.saveAll(anyList())).thenThrow(new OptimisticLockingFailureException("stale"));
+        when(gameRepo.save(any(Game.class))).thenThrow(new OptimisticLockingFailureException("stale"));
+        Game behind = new Game();
+        behind.setPlyCount(0);
+        when(gameRepo.findById(1L)).thenReturn(Optional.of(behind));
+
+        cache.flush();
+
+        // MySQL is not past our ply: the move stays queued.
+        assertEquals(1, cache.peek(1L).pendingMoves().size());
+
+        Game ahead = new Game();
+        ahead.setPlyCount(1);
+        when(gameRepo.findById(1L)).thenReturn(Optional.of(ahead));
+
+        cache.flush();
+
+        assertNull(cache.peek(1L));
+        assertEquals(1, registry.counter("game.cache.flush.conflicts").count());
+    }
+}
@@ -0,0 +1,60 @@
+package com.chadharangam.gameservice.clock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private final TimingWheel wheel = new TimingWheel(5, 16, Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    void firesOnlyUncancelledTimeouts() throws InterruptedException {
+        int count = 100_000;
+        CountDownLatch fired = new CountDownLatch(count / 2);
+        AtomicInteger cancelledFired = new AtomicInteger();
+        List<TimingWheel.Timeout> timeouts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Spread over several revolutions (16 buckets x 5 ms) to exercise round counting.
+            long delay = 500 + (i % 300);
+            timeouts.add(wheel.schedule(i % 2 == 0 ? fired::countDown : cancelledFired::incrementAndGet, delay));
+        }
+        for (int i = 1; i < count; i += 2) {
+            assertTrue(timeouts.get(i).cancel());
+        }
+        assertEquals(count / 2, wheel.pending());
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, cancelledFired.get());
+        assertEquals(0, wheel.pending());
+        assertFalse(timeouts.get(0).cancel());
+    }
+
+    @Test
+    void neverFiresBeforeTheDeadline() throws InterruptedException {
+        long start = System.nanoTime();
+        long[] firedAfter = new long[1];
+        CountDownLatch fired = new CountDownLatch(1);
+        wheel.schedule(() -> {
+            firedAfter[0] = System.nanoTime() - start;
+            fired.countDown();
+        }, 237);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(firedAfter[0] >= TimeUnit.MILLISECONDS.toNanos(237), "fired early: " + firedAfter[0]);
+    }
+}
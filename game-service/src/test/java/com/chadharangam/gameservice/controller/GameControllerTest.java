@@ -0,0 +1,118 @@
+package com.chadharangam.gameservice.controller;
+
+import com.chadharangam.gameservice.entity.Game;
+import com.chadharangam.gameservice.service.GameService;
+import com.chadharangam.gameservice.service.IllegalMoveException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GameControllerTest {
+
+    private GameService service;
+    private MockMvc mvc;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(GameService.class);
+        mvc = MockMvcBuilders.standaloneSetup(new GameController(service, "")).build();
+        game = new Game();
+        game.setId(7L);
+        game.setStatus("ONGOING");
+        game.setPlyCount(12);
+        when(service.getGame(7L)).thenReturn(game);
+        when(service.getMoveHistory(7L)).thenReturn(List.of());
+    }
+
+    @Test
+    void illegalMovesAreBadRequests() throws Exception {
+        when(service.submitMove(7L, 10L, "e2", "e5", "q"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalMoveException("Illegal move")));
+
+        MvcResult pending = mvc.perform(post("/api/games/move").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"gameId\":7,\"playerId\":10,\"from\":\"e2\",\"to\":\"e5\",\"promotion\":\"q\"}"))
+                .andReturn();
+        mvc.perform(asyncDispatch(pending))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unsignedMovesAreRejectedWhenIdentityIsRequired() throws Exception {
+        MockMvc secured = MockMvcBuilders.standaloneSetup(new GameController(service, "secret")).build();
+
+        secured.perform(post("/api/games/move").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"gameId\":7,\"playerId\":10,\"from\":\"e2\",\"to\":\"e4\"}"))
+                .andExpect(status().isUnauthorized());
+        verify(service, never()).submitMove(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void ongoingGamesRevalidateByPly() throws Exception {
+        String etag = mvc.perform(get("/api/games/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/api/games/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        game.setPlyCount(13);
+        mvc.perform(get("/api/games/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void unchangedMovesAreNotReadAgain() throws Exception {
+        String etag = mvc.perform(get("/api/games/7/moves"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(service);
+
+        mvc.perform(get("/api/games/7/moves").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(service, never()).getMoveHistory(anyLong());
+    }
+
+    @Test
+    void finishedGamesAreImmutable() throws Exception {
+        game.setStatus("CHECKMATE");
+        game.setLastMoveAt(1_700_000_000_000L);
+
+        mvc.perform(get("/api/games/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void untimedFinishedGamesAreDatedByTheirEnd() throws Exception {
+        game.setStatus("DRAW");
+        game.setCreatedAt(1_700_000_000_000L);
+        game.setFinishedAt(1_700_000_600_000L);
+
+        mvc.perform(get("/api/games/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, 1_700_000_600_000L));
+    }
+}
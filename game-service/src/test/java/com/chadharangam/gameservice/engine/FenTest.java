@@ -0,0 +1,46 @@
+package com.chadharangam.gameservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FenTest {
+
+    @Test
+    void roundTripsCanonicalFen() {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b Kq e3 12 34";
+        assertEquals(fen, Fen.toFen(Fen.parse(fen)));
+    }
+
+    @Test
+    void parsesEmbeddedRangeAndDefaultsMissingClocks() {
+        String text = "xx 8/8/8/8/8/8/8/K6k w - - yy";
+        Position p = Fen.parse(text, 3, text.length() - 3);
+        assertEquals("8/8/8/8/8/8/8/K6k w - - 0 1", Fen.toFen(p));
+    }
+
+    @Test
+    void rejectsMalformedPlacement() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/K6k9 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 w - - 0 1"));
+    }
+
+    @Test
+    void incrementalUpdateMatchesFullSerialization() {
+        Position p = Fen.parse(Position.START_FEN);
+        String fen = Position.START_FEN;
+        MoveList moves = new MoveList();
+
+        // Walk a deterministic line through castling, captures, en passant and promotions.
+        for (int ply = 0; ply < 300; ply++) {
+            MoveGenerator.generateLegal(p, moves);
+            if (moves.size() == 0) break;
+            int move = moves.get((ply * 7 + 3) % moves.size());
+            p.play(move);
+            fen = Fen.update(fen, p, move);
+            assertEquals(Fen.toFen(p), fen);
+        }
+    }
+}
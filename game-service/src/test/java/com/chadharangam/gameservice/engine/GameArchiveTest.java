@@ -0,0 +1,49 @@
+package com.chadharangam.gameservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameArchiveTest {
+
+    @Test
+    void roundTripsEveryLegalMoveOfAGame() {
+        Position p = Fen.parse(Position.START_FEN);
+        MoveList legal = new MoveList();
+        int[] moves = new int[300];
+        int count = 0;
+        // Deterministic walk long enough to need a two-byte ply count.
+        while (count < moves.length) {
+            MoveGenerator.generateLegal(p, legal);
+            if (legal.size() == 0) break;
+            int move = legal.get((count * 7) % legal.size());
+            p.play(move);
+            moves[count++] = move;
+        }
+
+        byte[] archive = GameArchive.encode(moves, count);
+        assertEquals(1 + (count > 127 ? 2 : 1) + 2 * count, archive.length);
+
+        int[] decoded = GameArchive.decode(archive);
+        assertEquals(count, decoded.length);
+        assertArrayEquals(Arrays.copyOf(moves, count), decoded);
+    }
+
+    @Test
+    void emptyGameHasATwoByteArchive() {
+        byte[] archive = GameArchive.encode(new int[0], 0);
+        assertEquals(2, archive.length);
+        assertEquals(0, GameArchive.decode(archive).length);
+    }
+
+    @Test
+    void rejectsTruncatedArchives() {
+        byte[] archive = GameArchive.encode(new int[] {Move.encode(Square.parse("e2"), Square.parse("e4"), Move.DOUBLE_PAWN_PUSH)}, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> GameArchive.decode(Arrays.copyOf(archive, archive.length - 1)));
+    }
+}
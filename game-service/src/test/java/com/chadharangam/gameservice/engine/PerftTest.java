@@ -0,0 +1,51 @@
+package com.chadharangam.gameservice.engine;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerftTest {
+
+    // Reference counts from https://www.chessprogramming.org/Perft_Results
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1; 5; 4865609",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 4; 4085603",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1; 5; 674624",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1; 4; 422333",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8; 4; 2103487",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10; 4; 3894594"
+    })
+    void matchesReferenceCounts(String fen, int depth, long expected) {
+        Position position = Fen.parse(fen);
+        assertEquals(expected, new Perft(depth).count(position, depth));
+        assertEquals(fen, Fen.toFen(position), "make/unmake must restore the position");
+    }
+
+    // Timing is left to MakeMoveBenchmark (JMH); this only pins down that validation does not allocate.
+    @Test
+    void validationDoesNotAllocate() {
+        Position position = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        int from = Square.parse("e2");
+        int to = Square.parse("a6");
+        for (int i = 0; i < 20_000; i++) {
+            MoveGenerator.findLegal(position, from, to, Piece.QUEEN);
+        }
+
+        // Under a byte per call: tolerates the JIT's one-off allocations, not one object per call.
+        int calls = 100_000;
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            MoveGenerator.findLegal(position, from, to, Piece.QUEEN);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(allocated < calls, "validation allocated " + allocated + " bytes in " + calls + " calls");
+    }
+}
@@ -0,0 +1,99 @@
+package com.chadharangam.gameservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ZobristTest {
+
+    @Test
+    void incrementalHashMatchesFromScratchThroughMakeAndUnmake() {
+        for (String fen : new String[] {
+                Position.START_FEN,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"}) {
+            walk(Fen.parse(fen), 3);
+        }
+    }
+
+    @Test
+    void transpositionsHashEqual() {
+        Position a = play(Position.START_FEN, "g1f3", "g8f6", "b1c3", "b8c6");
+        Position b = play(Position.START_FEN, "b1c3", "b8c6", "g1f3", "g8f6");
+        assertEquals(a.hash(), b.hash());
+        assertEquals(Fen.parse(Position.START_FEN).hash(), play(Position.START_FEN, "g1f3", "g8f6", "f3g1", "f6g8").hash());
+    }
+
+    @Test
+    void unusableEnPassantSquareIsNotHashed() {
+        // After 1. e4 no black pawn can take on e3, so the position equals one reached without the double push.
+        Position doublePush = play(Position.START_FEN, "e2e4");
+        Position sameBoard = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        assertEquals(sameBoard.hash(), doublePush.hash());
+
+        Position capturable = Fen.parse("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1");
+        capturable.play(MoveGenerator.findLegal(capturable, Square.parse("e2"), Square.parse("e4"), Piece.QUEEN));
+        assertNotEquals(Fen.parse("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1").hash(), capturable.hash());
+    }
+
+    @Test
+    void historyCountsRepetitionsSinceLastIrreversibleMove() {
+        PositionHistory history = new PositionHistory();
+        Position p = Fen.parse(Position.START_FEN);
+        history.push(p.hash(), p.halfmoveClock());
+        String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+        for (int round = 0; round < 2; round++) {
+            for (String uci : shuffle) {
+                p.play(MoveGenerator.findLegal(p, Square.parse(uci.substring(0, 2)), Square.parse(uci.substring(2)), Piece.QUEEN));
+                history.push(p.hash(), p.halfmoveClock());
+            }
+        }
+        assertEquals(3, history.repetitions());
+
+        p.play(MoveGenerator.findLegal(p, Square.parse("e2"), Square.parse("e4"), Piece.QUEEN));
+        history.push(p.hash(), p.halfmoveClock());
+        assertEquals(1, history.size());
+        assertEquals(1, history.repetitions());
+    }
+
+    @Test
+    void repetitionsOnlyLookAsFarBackAsTheHalfmoveClock() {
+        PositionHistory history = new PositionHistory();
+        // A window seeded mid-game (clock 6) whose older entries the clock says cannot count.
+        history.push(1L, 6);
+        history.push(2L, 7);
+        history.push(3L, 8);
+        history.push(4L, 9);
+        history.push(1L, 2);
+        assertEquals(1, history.repetitions());
+
+        history.push(5L, 3);
+        history.push(6L, 4);
+        history.push(7L, 5);
+        history.push(1L, 6);
+        assertEquals(2, history.repetitions());
+    }
+
+    private static void walk(Position p, int depth) {
+        assertEquals(Fen.parse(Fen.toFen(p)).hash(), p.hash(), Fen.toFen(p));
+        if (depth == 0) return;
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(p, moves);
+        long before = p.hash();
+        for (int i = 0; i < moves.size(); i++) {
+            p.makeMove(moves.get(i));
+            walk(p, depth - 1);
+            p.unmakeMove(moves.get(i));
+            assertEquals(before, p.hash());
+        }
+    }
+
+    private static Position play(String fen, String... uci) {
+        Position p = Fen.parse(fen);
+        for (String m : uci) {
+            p.play(MoveGenerator.findLegal(p, Square.parse(m.substring(0, 2)), Square.parse(m.substring(2)), Piece.QUEEN));
+        }
+        return p;
+    }
+}
@@ -0,0 +1,60 @@
+package com.chadharangam.gameservice.lane;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameLanesTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GameLanes lanes = new GameLanes(registry, 8, 100_000);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        lanes.shutdown();
+    }
+
+    @Test
+    void tasksForOneGameRunInSubmissionOrder() {
+        Map<Long, List<Integer>> seen = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int seq = 0; seq < 500; seq++) {
+            for (long game = 1; game <= 50; game++) {
+                long gameId = game;
+                int s = seq;
+                // Unsynchronized ArrayList on purpose: only the game's own lane ever touches it.
+                futures.add(lanes.submit(gameId, () -> {
+                    seen.computeIfAbsent(gameId, k -> new ArrayList<>()).add(s);
+                    return null;
+                }));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        for (List<Integer> order : seen.values()) {
+            assertEquals(500, order.size());
+            for (int i = 0; i < order.size(); i++) assertEquals(i, order.get(i));
+        }
+        assertNotNull(registry.find("game.lanes.queue.depth").tag("lane", "0").gauge());
+        assertEquals(25_000, registry.find("game.lanes.run").timers().stream().mapToLong(t -> t.count()).sum());
+    }
+
+    @Test
+    void gamesSpreadAcrossLanes() {
+        Set<Integer> used = new HashSet<>();
+        for (long game = 1; game <= 64; game++) used.add(lanes.laneOf(game));
+        assertTrue(used.size() == 8, "sequential ids used lanes " + used);
+    }
+}
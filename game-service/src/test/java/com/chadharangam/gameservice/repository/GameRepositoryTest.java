@@ -0,0 +1,54 @@
+package com.chadharangam.gameservice.repository;
+
+import com.chadharangam.gameservice.entity.Game;
+import com.chadharangam.gameservice.entity.Move;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class GameRepositoryTest {
+
+    @Autowired
+    private GameRepository gameRepo;
+
+    @Autowired
+    private MoveRepository moveRepo;
+
+    @Test
+    void duplicateMoveNumberIsRejected() {
+        moveRepo.saveAndFlush(move(1L, 1));
+
+        assertThrows(DataIntegrityViolationException.class, () -> moveRepo.saveAndFlush(move(1L, 1)));
+    }
+
+    @Test
+    void staleGameSnapshotIsRejected() {
+        Game game = new Game();
+        game.setStatus("ONGOING");
+        game.setPlyCount(0);
+        Game saved = gameRepo.saveAndFlush(game);
+
+        Game first = saved.snapshot();
+        first.setPlyCount(1);
+        Game second = saved.snapshot();
+        second.setPlyCount(1);
+
+        assertEquals(saved.getVersion() + 1, gameRepo.saveAndFlush(first).getVersion());
+        assertThrows(OptimisticLockingFailureException.class, () -> gameRepo.saveAndFlush(second));
+    }
+
+    private static Move move(Long gameId, int moveNumber) {
+        Move move = new Move();
+        move.setGameId(gameId);
+        move.setFromSquare("e2");
+        move.setToSquare("e4");
+        move.setMoveNumber(moveNumber);
+        return move;
+    }
+}
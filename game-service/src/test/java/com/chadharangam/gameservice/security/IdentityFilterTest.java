@@ -0,0 +1,88 @@
+package com.chadharangam.gameservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IdentityFilterTest {
+
+    private static final String SECRET = "identity-secret";
+
+    private final IdentityFilter filter = new IdentityFilter(SECRET);
+
+    @Test
+    void exposesTheCallerTheGatewaySigned() throws Exception {
+        MockHttpServletRequest request = signed("2267157479", "alice", "1450");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(new CallerIdentity(2267157479L, "alice", 1450), request.getAttribute(CallerIdentity.ATTRIBUTE));
+    }
+
+    @Test
+    void rejectsTamperedHeaders() throws Exception {
+        MockHttpServletRequest request = signed("2267157479", "alice", "1450");
+        request.removeHeader(IdentityFilter.USER_ID);
+        request.addHeader(IdentityFilter.USER_ID, "1");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(401, response.getStatus());
+        assertNull(request.getAttribute(CallerIdentity.ATTRIBUTE));
+    }
+
+    @Test
+    void rejectsHeadersSignedTooLongAgo() throws Exception {
+        long issuedAt = System.currentTimeMillis() - IdentityFilter.MAX_AGE_MS - 1_000;
+        MockHttpServletRequest request = signed("2267157479", "alice", "1450", issuedAt);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(401, response.getStatus());
+        assertNull(request.getAttribute(CallerIdentity.ATTRIBUTE));
+    }
+
+    @Test
+    void requestsWithoutIdentityPassThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertNull(request.getAttribute(CallerIdentity.ATTRIBUTE));
+    }
+
+    // Signed the way the gateway's IdentityHeaders does it.
+    private static MockHttpServletRequest signed(String id, String name, String rating) throws Exception {
+        return signed(id, name, rating, System.currentTimeMillis());
+    }
+
+    private static MockHttpServletRequest signed(String id, String name, String rating, long issuedAt) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] signature = Arrays.copyOf(
+                mac.doFinal((id + '\n' + name + '\n' + rating + '\n' + issuedAt).getBytes(StandardCharsets.UTF_8)), 16);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdentityFilter.USER_ID, id);
+        request.addHeader(IdentityFilter.USER_NAME, name);
+        request.addHeader(IdentityFilter.USER_RATING, rating);
+        request.addHeader(IdentityFilter.ISSUED_AT, Long.toString(issuedAt));
+        request.addHeader(IdentityFilter.SIGNATURE, Base64.getUrlEncoder().withoutPadding().encodeToString(signature));
+        return request;
+    }
+}
@@ -0,0 +1,70 @@
+package com.chadharangam.gameservice.service;
+
+import com.chadharangam.gameservice.cache.FinishedGames;
+import com.chadharangam.gameservice.cache.GameCache;
+import com.chadharangam.gameservice.clock.GameClocks;
+import com.chadharangam.gameservice.entity.Game;
+import com.chadharangam.gameservice.lane.GameLanes;
+import com.chadharangam.gameservice.repository.GameRepository;
+import com.chadharangam.gameservice.repository.MoveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A GameService with a real cache, clocks and lanes over mocked repositories, shared by the
+ * service and cache tests. A single {@code save} assigns id 1; {@code saveAll} numbers new
+ * games from 100. Call {@link #shutdown()} after each test.
+ */
+public class GameFixture {
+
+    public final GameRepository gameRepo = mock(GameRepository.class);
+    public final MoveRepository moveRepo = mock(MoveRepository.class);
+    public final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    public final GameCache cache = new GameCache(gameRepo, moveRepo, TransactionOperations.withoutTransaction(), registry, 100, 600_000);
+    public final GameClocks clocks = new GameClocks(registry, 10, 64, 1);
+    public final GameLanes lanes = new GameLanes(registry, 4, 1_000);
+    public final MovePublisher publisher = mock(MovePublisher.class);
+    public final GameService service = serviceWith(cache);
+
+    public GameFixture() {
+        when(gameRepo.save(any(Game.class))).thenAnswer(inv -> {
+            Game g = inv.getArgument(0);
+            g.setId(1L);
+            return g;
+        });
+        when(gameRepo.saveAll(anyList())).thenAnswer(inv -> {
+            List<Game> games = inv.getArgument(0);
+            long id = 100;
+            for (Game g : games) {
+                if (g.getId() == null) g.setId(id++);
+            }
+            return games;
+        });
+    }
+
+    /** Another service over the same fixture but {@code cache}, e.g. a spy of {@link #cache}. */
+    public GameService serviceWith(GameCache cache) {
+        return new GameService(gameRepo, moveRepo, cache, new FinishedGames(registry, 100), clocks, lanes, publisher);
+    }
+
+    /** Creates game 1 between players 10 and 20 and plays fool's mate; returns the final position. */
+    public static Game foolsMate(GameService service) {
+        service.createGame(10L, 20L);
+        service.makeMove(1L, 10L, "f2", "f3", null);
+        service.makeMove(1L, 20L, "e7", "e5", null);
+        service.makeMove(1L, 10L, "g2", "g4", null);
+        return service.makeMove(1L, 20L, "d8", "h4", null);
+    }
+
+    public void shutdown() throws InterruptedException {
+        clocks.shutdown();
+        lanes.shutdown();
+    }
+}
@@ -0,0 +1,153 @@
+package com.chadharangam.gameservice.service;
+
+import com.chadharangam.gameservice.clock.GameClocks;
+import com.chadharangam.gameservice.dto.CreateGameRequest;
+import com.chadharangam.gameservice.dto.MoveEvent;
+import com.chadharangam.gameservice.entity.Game;
+import com.chadharangam.gameservice.repository.GameRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class GameServiceTest {
+
+    private GameFixture fixture;
+    private GameRepository gameRepo;
+    private GameClocks clocks;
+    private GameService service;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new GameFixture();
+        gameRepo = fixture.gameRepo;
+        clocks = fixture.clocks;
+        service = fixture.service;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        fixture.shutdown();
+    }
+
+    @Test
+    void onlyAcceptedMovesArePublished() {
+        service.createGame(10L, 20L);
+        service.makeMove(1L, 10L, "e2", "e4", null);
+        assertThrows(RuntimeException.class, () -> service.makeMove(1L, 10L, "d2", "d4", null));
+        assertThrows(RuntimeException.class, () -> service.makeMove(1L, 20L, "e7", "e4", null));
+        service.makeMove(1L, 20L, "e7", "e5", null);
+
+        ArgumentCaptor<MoveEvent> events = ArgumentCaptor.forClass(MoveEvent.class);
+        verify(fixture.publisher, times(2)).publish(events.capture());
+        MoveEvent reply = events.getAllValues().get(1);
+        assertEquals(1L, reply.gameId);
+        assertEquals(20L, reply.playerId);
+        assertEquals("e7", reply.from);
+        assertEquals(2, reply.moveNumber);
+        assertEquals("ONGOING", reply.status);
+        assertEquals(com.chadharangam.gameservice.engine.Move.encode(52, 36, 1), reply.move); // e7e5, double push
+        assertNull(reply.clockMs);
+    }
+
+    @Test
+    void unknownPromotionPiecesAreIllegalMoves() {
+        service.createGame(10L, 20L);
+        for (String promotion : new String[] {"k", "x", "queen", "p"}) {
+            IllegalMoveException rejected = assertThrows(IllegalMoveException.class,
+                    () -> service.makeMove(1L, 10L, "e2", "e4", promotion));
+            assertEquals("Invalid promotion", rejected.getMessage());
+        }
+
+        assertEquals("WHITE", service.getGame(1L).getTurn());
+        service.makeMove(1L, 10L, "e2", "e4", " Q ");
+        verify(fixture.publisher, times(1)).publish(any());
+    }
+
+    @Test
+    void threefoldRepetitionEndsTheGameInADraw() {
+        service.createGame(10L, 20L);
+        String[][] shuffle = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+        Game last = null;
+        for (int ply = 0; ply < 8; ply++) {
+            String[] m = shuffle[ply % 4];
+            last = service.makeMove(1L, ply % 2 == 0 ? 10L : 20L, m[0], m[1], null);
+        }
+
+        assertEquals("DRAW", last.getStatus());
+        assertNull(fixture.cache.peek(1L));
+    }
+
+    @Test
+    void flagFallEndsAnAbandonedGame() {
+        service.createGame(10L, 20L, "0.005+0"); // 300 ms each
+        service.makeMove(1L, 10L, "e2", "e4", null);
+
+        // Nobody moves for Black: the wheel fires and the game is written as finished.
+        ArgumentCaptor<Game> saved = ArgumentCaptor.forClass(Game.class);
+        verify(gameRepo, timeout(5_000).times(2)).save(saved.capture());
+        assertNull(fixture.cache.peek(1L));
+        assertEquals("TIMEOUT", saved.getValue().getStatus());
+        assertEquals("BLACK", saved.getValue().getTurn());
+        assertEquals(0L, saved.getValue().getBlackTimeMs());
+        assertEquals(0, clocks.pending());
+    }
+
+    @Test
+    void duplicateSubmissionsAreAppliedOnce() {
+        service.createGame(10L, 20L);
+        List<CompletableFuture<Game>> attempts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            attempts.add(service.submitMove(1L, 10L, "e2", "e4", null));
+        }
+
+        long applied = attempts.stream().filter(f -> {
+            try {
+                f.join();
+                return true;
+            } catch (CompletionException rejected) {
+                assertEquals("Not BLACK player's turn", rejected.getCause().getMessage());
+                return false;
+            }
+        }).count();
+        assertEquals(1, applied);
+        assertEquals(1, service.getMoveHistory(1L).size());
+        assertEquals("BLACK", service.getGame(1L).getTurn());
+    }
+
+    @Test
+    void batchCreatesGamesWithOneSave() {
+        List<CreateGameRequest> requests = new ArrayList<>();
+        for (long p = 0; p < 3; p++) {
+            CreateGameRequest r = new CreateGameRequest();
+            r.whitePlayerId = 2 * p;
+            r.blackPlayerId = 2 * p + 1;
+            r.timeControl = "BLITZ";
+            requests.add(r);
+        }
+
+        List<Game> games = service.createGames(requests);
+
+        verify(gameRepo, times(1)).saveAll(anyList());
+        verify(gameRepo, never()).save(any(Game.class));
+        assertEquals(3, games.size());
+        assertEquals(4L, games.get(2).getWhitePlayerId());
+        assertEquals(300_000L, service.getGame(games.get(2).getId()).getBlackTimeMs());
+        assertEquals(3, clocks.pending());
+    }
+}
@@ -0,0 +1,73 @@
+package com.chadharangam.gameservice.service;
+
+import com.chadharangam.gameservice.dto.MoveEvent;
+import com.chadharangam.gameservice.security.InternalSignature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class MovePublisherTest {
+
+    private MovePublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    void aStalledNotificationServiceCostsDroppedEventsNotMemory() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.expect(requestTo("http://notification-service/internal/notifications/moves"))
+                .andExpect(header(InternalSignature.SIGNATURE, matchesPattern("[A-Za-z0-9_-]{22}")))
+                .andRespond(request -> {
+                    sending.countDown();
+                    await(release);
+                    return withSuccess().createResponse(request);
+                });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        publisher = new MovePublisher(restTemplate, new InternalSignature("identity-secret"), new ObjectMapper(),
+                registry, "http://notification-service", 1, 2);
+
+        // The first event holds the sender in notification-service; two more fit in the queue.
+        publisher.publish(event(1));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        for (int ply = 2; ply <= 6; ply++) {
+            publisher.publish(event(ply));
+        }
+
+        assertEquals(3, registry.counter("game.notify.dropped").count());
+        release.countDown();
+    }
+
+    private static MoveEvent event(int ply) {
+        MoveEvent event = new MoveEvent();
+        event.gameId = 1L;
+        event.moveNumber = ply;
+        return event;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,14 +1,37 @@
 package com.chadharangam.matchmakingservice;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class MatchmakingServiceApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(MatchmakingServiceApplication.class, args);
     }
+
+    // Resolves service names (http://game-service, http://user-service) through Eureka. With
+    // timeouts, so a stalled game-service cannot hold the game creator's thread for ever.
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate(
+            RestTemplateBuilder builder,
+            @Value("${matchmaking.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${matchmaking.http.read-timeout-ms:5000}") long readTimeoutMs) {
+        return builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+    }
 }
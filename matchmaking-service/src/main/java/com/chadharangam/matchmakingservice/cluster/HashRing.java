@@ -0,0 +1,46 @@
+package com.chadharangam.matchmakingservice.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring of node URLs. Each node is placed at {@code virtualNodes} points so keys
+ * spread evenly, and adding or removing a node only moves the keys between it and its
+ * neighbours.
+ */
+final class HashRing {
+
+    private final TreeMap<Long, String> points = new TreeMap<>();
+
+    HashRing(Collection<String> nodes, int virtualNodes) {
+        for (String node : nodes) {
+            for (int v = 0; v < virtualNodes; v++) {
+                points.put(hash(node + "#" + v), node);
+            }
+        }
+    }
+
+    /** The node owning {@code key}, or {@code null} for an empty ring. */
+    String ownerOf(String key) {
+        if (points.isEmpty()) return null;
+        Map.Entry<Long, String> e = points.ceilingEntry(hash(key));
+        return (e != null ? e : points.firstEntry()).getValue();
+    }
+
+    // FNV-1a, then the murmur3 finalizer so similar keys land far apart.
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
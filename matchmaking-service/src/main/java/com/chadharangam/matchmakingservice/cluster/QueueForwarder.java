@@ -0,0 +1,166 @@
+package com.chadharangam.matchmakingservice.cluster;
+
+import com.chadharangam.matchmakingservice.dto.MatchRequest;
+import com.chadharangam.matchmakingservice.security.IdentityFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands matchmaking requests for a queue key this node does not own to the node that does.
+ * Forwarded requests carry {@link #FORWARDED_HEADER} and are always served where they land,
+ * so nodes whose views of the ring briefly disagree cannot bounce a request back and forth.
+ * The gateway's signed identity headers travel with them unchanged, so the owner checks the
+ * caller exactly as the first node did.
+ */
+@Component
+public class QueueForwarder {
+
+    public static final String FORWARDED_HEADER = "X-Matchmaking-Forwarded";
+
+    private static final List<String> IDENTITY_HEADERS = List.of(
+            IdentityFilter.USER_ID, IdentityFilter.USER_NAME, IdentityFilter.USER_RATING, IdentityFilter.ISSUED_AT,
+            IdentityFilter.SIGNATURE);
+
+    // Node URLs come from discovery, so these clients must not be load-balanced. The relayed
+    // stream only gets a connect timeout: it stays open for as long as the player waits.
+    private final RestTemplate restTemplate;
+    private final HttpClient streamClient;
+    private final long streamTimeoutMs;
+
+    public QueueForwarder(RestTemplateBuilder builder,
+                          @Value("${matchmaking.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                          @Value("${matchmaking.http.read-timeout-ms:5000}") long readTimeoutMs,
+                          @Value("${matchmaking.events.timeout-ms:600000}") long streamTimeoutMs) {
+        this.restTemplate = builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+        this.streamClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.streamTimeoutMs = streamTimeoutMs;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> find(String owner, MatchRequest request, HttpServletRequest incoming) {
+        HttpHeaders headers = new HttpHeaders();
+        identityOf(incoming).forEach(headers::set);
+        headers.set(FORWARDED_HEADER, "1");
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.postForObject(owner + "/api/matchmaking/find", new HttpEntity<>(request, headers), Map.class);
+    }
+
+    /**
+     * Relays the owner's event stream event by event. Closing either side closes the other:
+     * a client that goes away stops the relay, and the owner's next heartbeat then fails and
+     * drops the waiter.
+     */
+    public SseEmitter events(String owner, Long playerId, String username, Integer rating, String mode, String timeControl,
+                             HttpServletRequest incoming) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(owner)
+                .path("/api/matchmaking/events")
+                .queryParam("playerId", playerId)
+                .queryParamIfPresent("username", Optional.ofNullable(username))
+                .queryParamIfPresent("rating", Optional.ofNullable(rating))
+                .queryParamIfPresent("mode", Optional.ofNullable(mode))
+                .queryParamIfPresent("timeControl", Optional.ofNullable(timeControl))
+                .encode()
+                .build()
+                .toUri();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .header(FORWARDED_HEADER, "1")
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        identityOf(incoming).forEach(builder::header);
+        HttpRequest request = builder.build();
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        AtomicReference<InputStream> upstream = new AtomicReference<>();
+        Runnable close = () -> {
+            InputStream in = upstream.get();
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(e -> close.run());
+
+        Thread.ofVirtual().name("matchmaking-relay-" + playerId).start(() -> {
+            try {
+                HttpResponse<InputStream> response = streamClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                upstream.set(response.body());
+                if (response.statusCode() != 200) {
+                    throw new IOException("Owner " + owner + " answered " + response.statusCode());
+                }
+                relay(response.body(), emitter);
+                emitter.complete();
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                close.run();
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private static Map<String, String> identityOf(HttpServletRequest incoming) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : IDENTITY_HEADERS) {
+            String value = incoming.getHeader(name);
+            if (value != null) headers.put(name, value);
+        }
+        return headers;
+    }
+
+    // Re-emits each upstream event and heartbeat comment; event data is already JSON text.
+    private static void relay(InputStream in, SseEmitter emitter) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String name = null;
+        StringBuilder data = null;
+        for (String line; (line = reader.readLine()) != null; ) {
+            if (line.isEmpty()) {
+                if (data != null) {
+                    SseEmitter.SseEventBuilder event = SseEmitter.event();
+                    if (name != null) event.name(name);
+                    emitter.send(event.data(data.toString(), MediaType.TEXT_PLAIN));
+                }
+                name = null;
+                data = null;
+            } else if (line.startsWith(":")) {
+                emitter.send(SseEmitter.event().comment(line.substring(1)));
+            } else if (line.startsWith("event:")) {
+                name = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                String value = line.substring(5);
+                if (value.startsWith(" ")) value = value.substring(1);
+                data = data == null ? new StringBuilder(value) : data.append('\n').append(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.chadharangam.matchmakingservice.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Decides which matchmaking-service instance owns each queue key, so players of one mode and
+ * time control meet on the same node however the gateway spread them. Members are the
+ * instances the {@link DiscoveryClient} reports for this service (Eureka in deployment), laid
+ * out on a {@link HashRing}. Until this instance finds itself among them, it owns every key.
+ */
+@Component
+public class QueueRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueueRouter.class);
+
+    private record View(HashRing ring, String self, List<String> members) {
+    }
+
+    private final DiscoveryClient discovery;
+    private final String serviceId;
+    private final int virtualNodes;
+    private volatile int localPort = -1;
+    private volatile View view = new View(null, null, List.of());
+
+    public QueueRouter(
+            DiscoveryClient discovery,
+            @Value("${spring.application.name}") String serviceId,
+            @Value("${matchmaking.cluster.virtual-nodes:64}") int virtualNodes) {
+        this.discovery = discovery;
+        this.serviceId = serviceId;
+        this.virtualNodes = virtualNodes;
+    }
+
+    /** Base URL of the node owning {@code queueKey}, or {@code null} when this node owns it. */
+    public String ownerOf(String queueKey) {
+        View v = view;
+        if (v.self() == null) return null;
+        String owner = v.ring().ownerOf(queueKey);
+        return v.self().equals(owner) ? null : owner;
+    }
+
+    @EventListener
+    public void onWebServerReady(WebServerInitializedEvent event) {
+        localPort = event.getWebServer().getPort();
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${matchmaking.cluster.refresh-ms:5000}")
+    public void refresh() {
+        if (localPort < 0) return;
+        TreeSet<String> members = new TreeSet<>();
+        String self = null;
+        for (ServiceInstance instance : discovery.getInstances(serviceId)) {
+            String url = instance.getUri().toString();
+            members.add(url);
+            if (instance.getPort() == localPort && isLocal(instance.getHost())) self = url;
+        }
+
+        List<String> sorted = List.copyOf(members);
+        if (sorted.equals(view.members()) && Objects.equals(self, view.self())) return;
+        view = new View(new HashRing(sorted, virtualNodes), self, sorted);
+        log.info("Matchmaking ring: {} (self {})", sorted, self);
+    }
+
+    private static boolean isLocal(String host) {
+        try {
+            InetAddress address = InetAddress.getByName(host);
+            return address.isLoopbackAddress() || NetworkInterface.getByInetAddress(address) != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.chadharangam.matchmakingservice.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.Map;
 
+import com.chadharangam.matchmakingservice.cluster.QueueForwarder;
+import com.chadharangam.matchmakingservice.cluster.QueueRouter;
 import com.chadharangam.matchmakingservice.dto.MatchRequest;
+import com.chadharangam.matchmakingservice.security.CallerIdentity;
 import com.chadharangam.matchmakingservice.service.MatchmakingService;
 
 @RestController
@@ -11,13 +20,71 @@ import com.chadharangam.matchmakingservice.service.MatchmakingService;
 public class MatchmakingController {
 
     private final MatchmakingService service;
+    private final QueueRouter router;
+    private final QueueForwarder forwarder;
 
-    public MatchmakingController(MatchmakingService service) {
+    private final boolean identityRequired;
+
+    public MatchmakingController(MatchmakingService service, QueueRouter router, QueueForwarder forwarder,
+                                 @Value("${identity.secret:}") String identitySecret) {
         this.service = service;
+        this.router = router;
+        this.forwarder = forwarder;
+        this.identityRequired = !identitySecret.isBlank();
     }
 
+    // With identity.secret set, the caller is whoever the gateway signed for, on forwarded
+    // requests too (the forwarder passes the signed headers on); the body's identity is never
+    // used. Without a secret only a forwarding node's resolved rating is taken on trust.
     @PostMapping("/find")
-    public Map<String, Object> findMatch(@RequestBody MatchRequest request) {
-        return service.findMatch(request.playerId, request.mode, request.timeControl);
+    public Map<String, Object> findMatch(@RequestBody MatchRequest request,
+                                         @RequestHeader(value = QueueForwarder.FORWARDED_HEADER, required = false) String forwarded,
+                                         @RequestAttribute(value = CallerIdentity.ATTRIBUTE, required = false) CallerIdentity caller,
+                                         HttpServletRequest incoming) {
+        if (identityRequired) {
+            CallerIdentity verified = requireCaller(caller);
+            request.playerId = verified.playerId();
+            request.username = verified.username();
+            request.rating = verified.rating();
+        } else if (forwarded == null) {
+            request.rating = null;
+        }
+        String owner = forwarded == null ? router.ownerOf(MatchmakingService.queueKey(request.mode, request.timeControl)) : null;
+        if (owner != null) {
+            return forwarder.find(owner, request, incoming);
+        }
+        return service.findMatch(request.playerId, request.username, request.rating, request.mode, request.timeControl);
+    }
+
+    // Enqueue once and receive "waiting", then "matched", as server-sent events.
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestParam(required = false) Long playerId,
+                             @RequestParam(required = false) String username,
+                             @RequestParam(required = false) Integer rating,
+                             @RequestParam(required = false) String mode,
+                             @RequestParam(required = false) String timeControl,
+                             @RequestHeader(value = QueueForwarder.FORWARDED_HEADER, required = false) String forwarded,
+                             @RequestAttribute(value = CallerIdentity.ATTRIBUTE, required = false) CallerIdentity caller,
+                             HttpServletRequest incoming) {
+        if (identityRequired) {
+            CallerIdentity verified = requireCaller(caller);
+            playerId = verified.playerId();
+            username = verified.username();
+            rating = verified.rating();
+        } else if (forwarded == null) {
+            rating = null;
+        }
+        String owner = forwarded == null ? router.ownerOf(MatchmakingService.queueKey(mode, timeControl)) : null;
+        if (owner != null) {
+            return forwarder.events(owner, playerId, username, rating, mode, timeControl, incoming);
+        }
+        return service.subscribe(playerId, username, rating, mode, timeControl);
+    }
+
+    private static CallerIdentity requireCaller(CallerIdentity caller) {
+        if (caller == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing caller identity");
+        }
+        return caller;
     }
 }
@@ -2,6 +2,8 @@ package com.chadharangam.matchmakingservice.dto;
 
 public class MatchRequest {
     public Long playerId;
+    public String username; // JWT subject; used to look up the player's rating
+    public Integer rating; // only honoured on forwarded requests without identity.secret; otherwise the signed rating
     public String mode;
     public String timeControl;
 }
@@ -0,0 +1,45 @@
+package com.chadharangam.matchmakingservice.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Puts the gateway's {@code X-Trace-Id} into the logging MDC as {@code traceId} for the rest of
+ * the request, so a slow request the gateway logged can be found here by the same id (the log
+ * pattern prints it next to the level). Only the request thread carries it; work handed to
+ * other threads logs without it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Trace-Id";
+    public static final String MDC_KEY = "traceId";
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9-]{8,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = request.getHeader(HEADER);
+        if (traceId == null || !VALID.matcher(traceId).matches()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        MDC.put(MDC_KEY, traceId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
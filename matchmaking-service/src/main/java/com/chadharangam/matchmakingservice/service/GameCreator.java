@@ -0,0 +1,140 @@
+package com.chadharangam.matchmakingservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creates games in game-service off the matching path. Pairings are queued; one thread takes
+ * whatever has accumulated (up to {@code matchmaking.create.batch-size}) and creates it with a
+ * single {@code POST /api/games/create-batch}, so a slow game-service delays game creation but
+ * never the sweep. Each pairing's future completes with the new game id, or {@code null} if
+ * the batch failed or the queue ({@code matchmaking.create.queue-capacity}) was full; the
+ * caller puts those players back in the pool.
+ */
+@Component
+public class GameCreator {
+
+    private static final Logger log = LoggerFactory.getLogger(GameCreator.class);
+
+    private record Request(Long whitePlayerId, Long blackPlayerId, String timeControl, CompletableFuture<Long> result) {
+    }
+
+    private final RestTemplate restTemplate;
+    private final String gameServiceUrl;
+    private final int maxBatch;
+    private final BlockingQueue<Request> queue;
+    private final Thread worker;
+    private final Timer latency;
+    private final DistributionSummary batchSize;
+    private final Counter rejected;
+
+    public GameCreator(
+            RestTemplate restTemplate,
+            MeterRegistry registry,
+            @Value("${matchmaking.game-service-url:http://game-service}") String gameServiceUrl,
+            @Value("${matchmaking.create.batch-size:256}") int maxBatch,
+            @Value("${matchmaking.create.queue-capacity:10000}") int queueCapacity) {
+        this.restTemplate = restTemplate;
+        this.gameServiceUrl = gameServiceUrl;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.rejected = registry.counter("matchmaking.create.rejected");
+        this.latency = Timer.builder("matchmaking.create.latency")
+                .description("Duration of one create-batch call to game-service")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("matchmaking.create.batch.size")
+                .description("Games created per create-batch call")
+                .register(registry);
+        this.worker = new Thread(this::run, "game-creator");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public CompletableFuture<Long> create(Long whitePlayerId, Long blackPlayerId, String timeControl) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        if (!queue.offer(new Request(whitePlayerId, blackPlayerId, timeControl, result))) {
+            // game-service is not keeping up: fail fast rather than pile pairings up behind it.
+            rejected.increment();
+            result.complete(null);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            createAll(batch);
+            batch.clear();
+        }
+    }
+
+    private void createAll(List<Request> batch) {
+        List<Map<String, Object>> body = new ArrayList<>(batch.size());
+        for (Request r : batch) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("whitePlayerId", r.whitePlayerId());
+            m.put("blackPlayerId", r.blackPlayerId());
+            m.put("timeControl", r.timeControl());
+            body.add(m);
+        }
+
+        Long[] ids = new Long[batch.size()];
+        batchSize.record(batch.size());
+        Timer.Sample sample = Timer.start();
+        try {
+            Map<?, ?>[] games = restTemplate.postForObject(gameServiceUrl + "/api/games/create-batch", body, Map[].class);
+            if (games == null || games.length != batch.size()) {
+                throw new RuntimeException("Unexpected create-batch response");
+            }
+            for (int i = 0; i < games.length; i++) {
+                ids[i] = idOf(games[i]);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Creating {} games failed", batch.size(), e);
+        } finally {
+            sample.stop(latency);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(ids[i]);
+        }
+    }
+
+    private static Long idOf(Map<?, ?> game) {
+        Object rawId = game.get("gameId") != null ? game.get("gameId") : game.get("id");
+        if (rawId instanceof Number n) {
+            return n.longValue();
+        } else if (rawId instanceof String s) {
+            return Long.parseLong(s);
+        }
+        return null;
+    }
+}
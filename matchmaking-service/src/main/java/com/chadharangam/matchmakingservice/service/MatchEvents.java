@@ -0,0 +1,17 @@
+package com.chadharangam.matchmakingservice.service;
+
+/** Changes to matchmaking state, as journaled by {@link MatchJournal} and replayed on startup. */
+public interface MatchEvents {
+
+    /** A player joined queue {@code key}. */
+    void enqueued(String key, long playerId, int rating, long enqueuedAtMs);
+
+    /** A waiting player left queue {@code key} without a match. */
+    void removed(String key, long playerId);
+
+    /** Two waiters of queue {@code key} were given a game; both have yet to acknowledge it. */
+    void matched(String key, long gameId, long whitePlayerId, long blackPlayerId, long createdAtMs);
+
+    /** A matched player received their game. */
+    void acked(long playerId);
+}
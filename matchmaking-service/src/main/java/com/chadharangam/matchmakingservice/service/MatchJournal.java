@@ -0,0 +1,303 @@
+package com.chadharangam.matchmakingservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Durable record of matchmaking state, so a restart keeps waiting players and undelivered
+ * matches. Changes are appended to a memory-mapped journal; every
+ * {@code matchmaking.journal.snapshot-interval-ms} (or when the journal fills up) the whole
+ * state is written to a snapshot file in the same record format and the journal starts over.
+ * Recovery replays the snapshot, then the journal.
+ *
+ * <p>Records survive a killed process (the mapping lives in the page cache) but are not
+ * forced to disk, so an OS crash may lose the last moments. An empty
+ * {@code matchmaking.journal.dir} disables journaling.
+ *
+ * <p>Layout: the journal starts with the epoch of the snapshot it extends, then records of
+ * {@code [type:1][length:2][payload]}; type 0 ends the journal. The type byte is written
+ * last, so a record cut short by a crash is never read.
+ */
+@Component
+public class MatchJournal implements MatchEvents {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchJournal.class);
+
+    private static final byte END = 0;
+    private static final byte ENQUEUED = 1;
+    private static final byte REMOVED = 2;
+    private static final byte MATCHED = 3;
+    private static final byte ACKED = 4;
+
+    private static final int HEADER_BYTES = Long.BYTES;
+    private static final int RECORD_HEADER_BYTES = 3;
+
+    private final Path dir;
+    private final long snapshotIntervalMs;
+    private final ByteBuffer scratch = ByteBuffer.allocate(1024);
+
+    private FileChannel channel;
+    private MappedByteBuffer journal;
+    private long epoch;
+    private long lastSnapshotMs;
+    private boolean overflowed;
+
+    public MatchJournal(
+            @Value("${matchmaking.journal.dir:}") String dir,
+            @Value("${matchmaking.journal.size-bytes:16777216}") int sizeBytes,
+            @Value("${matchmaking.journal.snapshot-interval-ms:10000}") long snapshotIntervalMs) {
+        this.dir = dir.isBlank() ? null : Path.of(dir);
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        if (this.dir == null) return;
+        try {
+            Files.createDirectories(this.dir);
+            channel = FileChannel.open(this.dir.resolve("journal"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            journal = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open matchmaking journal in " + dir, e);
+        }
+    }
+
+    /** A journal that records nothing, for tools and tests that do not need recovery. */
+    public static MatchJournal disabled() {
+        return new MatchJournal("", 0, Long.MAX_VALUE);
+    }
+
+    // ===== Appending =====
+
+    @Override
+    public void enqueued(String key, long playerId, int rating, long enqueuedAtMs) {
+        if (journal == null) return;
+        synchronized (this) {
+            append(encodeEnqueued(key, playerId, rating, enqueuedAtMs));
+        }
+    }
+
+    @Override
+    public void removed(String key, long playerId) {
+        if (journal == null) return;
+        synchronized (this) {
+            append(encodeRemoved(key, playerId));
+        }
+    }
+
+    @Override
+    public void matched(String key, long gameId, long whitePlayerId, long blackPlayerId, long createdAtMs) {
+        if (journal == null) return;
+        synchronized (this) {
+            append(encodeMatched(key, gameId, whitePlayerId, blackPlayerId, createdAtMs));
+        }
+    }
+
+    @Override
+    public void acked(long playerId) {
+        if (journal == null) return;
+        synchronized (this) {
+            append(encodeAcked(playerId));
+        }
+    }
+
+    private void append(ByteBuffer record) {
+        int pos = journal.position();
+        if (pos == 0) pos = HEADER_BYTES;
+        // Keep room for the END marker after every record.
+        if (pos + record.remaining() + 1 > journal.capacity()) {
+            // The state is still in memory; the next snapshot persists it.
+            overflowed = true;
+            return;
+        }
+        byte type = record.get(0);
+        record.put(0, END);
+        journal.put(pos, record, 0, record.remaining());
+        journal.put(pos, type);
+        journal.position(pos + record.remaining());
+    }
+
+    // ===== Snapshots =====
+
+    /** True when the next sweep should write a snapshot. */
+    synchronized boolean snapshotDue(long now) {
+        return journal != null && (overflowed
+                || now - lastSnapshotMs >= snapshotIntervalMs
+                || journal.position() > journal.capacity() * 3 / 4);
+    }
+
+    /**
+     * Writes the state {@code dump} reports as the new snapshot and empties the journal.
+     * Appends from other threads wait meanwhile, so none falls between the two files.
+     */
+    public synchronized void snapshot(Consumer<MatchEvents> dump, long now) {
+        if (journal == null) return;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putLong(0, epoch + 1);
+        out.write(header.array(), 0, HEADER_BYTES);
+        dump.accept(new MatchEvents() {
+            @Override
+            public void enqueued(String key, long playerId, int rating, long enqueuedAtMs) {
+                write(encodeEnqueued(key, playerId, rating, enqueuedAtMs));
+            }
+
+            @Override
+            public void removed(String key, long playerId) {
+                write(encodeRemoved(key, playerId));
+            }
+
+            @Override
+            public void matched(String key, long gameId, long whitePlayerId, long blackPlayerId, long createdAtMs) {
+                write(encodeMatched(key, gameId, whitePlayerId, blackPlayerId, createdAtMs));
+            }
+
+            @Override
+            public void acked(long playerId) {
+                write(encodeAcked(playerId));
+            }
+
+            private void write(ByteBuffer record) {
+                out.write(record.array(), 0, record.remaining());
+            }
+        });
+        out.write(END);
+
+        try {
+            Path tmp = dir.resolve("snapshot.tmp");
+            Files.write(tmp, out.toByteArray());
+            Files.move(tmp, dir.resolve("snapshot"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Writing matchmaking snapshot failed; keeping the journal", e);
+            return;
+        }
+
+        // The snapshot now holds everything: clear the journal, then claim it for the new epoch.
+        // A crash in between leaves an old epoch in the header, and the journal is ignored.
+        int used = Math.max(journal.position(), HEADER_BYTES + 1);
+        for (int i = HEADER_BYTES; i < used; i++) journal.put(i, END);
+        epoch++;
+        journal.putLong(0, epoch);
+        journal.position(HEADER_BYTES);
+        overflowed = false;
+        lastSnapshotMs = now;
+    }
+
+    // ===== Recovery =====
+
+    /** Replays the last snapshot, then the journal written after it, into {@code target}. */
+    public synchronized void replay(MatchEvents target) {
+        if (journal == null) return;
+        int records = 0;
+        Path snapshot = dir.resolve("snapshot");
+        try {
+            if (Files.exists(snapshot)) {
+                ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+                epoch = in.getLong();
+                records += decode(in, target);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read matchmaking snapshot", e);
+        }
+
+        ByteBuffer in = journal.duplicate().position(0);
+        if (in.getLong() == epoch) {
+            records += decode(in, target);
+            journal.position(in.position() - 1);
+        } else {
+            journal.position(0);
+        }
+        log.info("Recovered matchmaking state from {} records (epoch {})", records, epoch);
+    }
+
+    private static int decode(ByteBuffer in, MatchEvents target) {
+        int records = 0;
+        try {
+            while (in.hasRemaining()) {
+                byte type = in.get();
+                if (type == END) break;
+                int length = Short.toUnsignedInt(in.getShort());
+                ByteBuffer payload = in.slice(in.position(), length);
+                in.position(in.position() + length);
+                switch (type) {
+                    case ENQUEUED -> target.enqueued(readKey(payload), payload.getLong(), payload.getInt(), payload.getLong());
+                    case REMOVED -> target.removed(readKey(payload), payload.getLong());
+                    case MATCHED -> target.matched(readKey(payload), payload.getLong(), payload.getLong(),
+                            payload.getLong(), payload.getLong());
+                    case ACKED -> target.acked(payload.getLong());
+                    default -> throw new IllegalStateException("Unknown matchmaking journal record " + type);
+                }
+                records++;
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            log.warn("Matchmaking journal ends in a damaged record; replayed {} records", records);
+        }
+        return records;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (channel != null) channel.close();
+    }
+
+    // ===== Encoding =====
+
+    private ByteBuffer encodeEnqueued(String key, long playerId, int rating, long enqueuedAtMs) {
+        ByteBuffer b = begin(ENQUEUED, key);
+        b.putLong(playerId).putInt(rating).putLong(enqueuedAtMs);
+        return finish(b);
+    }
+
+    private ByteBuffer encodeRemoved(String key, long playerId) {
+        ByteBuffer b = begin(REMOVED, key);
+        b.putLong(playerId);
+        return finish(b);
+    }
+
+    private ByteBuffer encodeMatched(String key, long gameId, long whitePlayerId, long blackPlayerId, long createdAtMs) {
+        ByteBuffer b = begin(MATCHED, key);
+        b.putLong(gameId).putLong(whitePlayerId).putLong(blackPlayerId).putLong(createdAtMs);
+        return finish(b);
+    }
+
+    private ByteBuffer encodeAcked(long playerId) {
+        ByteBuffer b = begin(ACKED, null);
+        b.putLong(playerId);
+        return finish(b);
+    }
+
+    private ByteBuffer begin(byte type, String key) {
+        ByteBuffer b = scratch.clear();
+        b.put(type).putShort((short) 0);
+        if (key != null) {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, 255);
+            b.put((byte) length).put(bytes, 0, length);
+        }
+        return b;
+    }
+
+    private static ByteBuffer finish(ByteBuffer b) {
+        b.putShort(1, (short) (b.position() - RECORD_HEADER_BYTES));
+        return b.flip();
+    }
+
+    private static String readKey(ByteBuffer payload) {
+        byte[] bytes = new byte[Byte.toUnsignedInt(payload.get())];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,67 @@
+package com.chadharangam.matchmakingservice.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Open server-sent-event streams of waiting players, at most one per player.
+ * A newer stream for the same player replaces the older one.
+ */
+final class MatchStreams {
+
+    private final Map<Long, SseEmitter> byPlayer = new ConcurrentHashMap<>();
+
+    SseEmitter open(Long playerId, long timeoutMs) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Runnable forget = () -> byPlayer.remove(playerId, emitter);
+        emitter.onCompletion(forget);
+        emitter.onTimeout(forget);
+        emitter.onError(e -> forget.run());
+
+        SseEmitter previous = byPlayer.put(playerId, emitter);
+        if (previous != null) previous.complete();
+        return emitter;
+    }
+
+    /** Sends one event; the stream is closed after a {@code matched} event. */
+    boolean send(Long playerId, String event, Map<String, Object> data) {
+        SseEmitter emitter = byPlayer.get(playerId);
+        if (emitter == null) return false;
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // The container reports the broken connection on its own; just stop using it.
+            byPlayer.remove(playerId, emitter);
+            return false;
+        }
+        if ("matched".equals(event)) {
+            byPlayer.remove(playerId, emitter);
+            emitter.complete();
+        }
+        return true;
+    }
+
+    /**
+     * Writes a comment line to every stream. Players whose stream is still writable go to
+     * {@code alive}; those whose connection has gone away are dropped and go to {@code gone}.
+     */
+    void heartbeat(Consumer<List<Long>> alive, Consumer<Long> gone) {
+        List<Long> reached = new ArrayList<>(byPlayer.size());
+        for (Map.Entry<Long, SseEmitter> e : byPlayer.entrySet()) {
+            try {
+                e.getValue().send(SseEmitter.event().comment("heartbeat"));
+                reached.add(e.getKey());
+            } catch (IOException | IllegalStateException ex) {
+                byPlayer.remove(e.getKey(), e.getValue());
+                gone.accept(e.getKey());
+            }
+        }
+        alive.accept(reached);
+    }
+}
@@ -1,81 +1,67 @@
 package com.chadharangam.matchmakingservice.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Set;
-import java.util.Queue;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class MatchmakingService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final GameCreator games;
+    private final RatingCache ratings;
+    private final MatchJournal journal;
+    private final MeterRegistry registry;
+    private final Counter expiredMatches;
+    private final RatingPool.Band band;
 
     private static final long QUEUE_STALE_MS = 15_000;
     private static final long MATCH_STALE_MS = 60_000;
 
-    private static final class WaitingQueue {
-        private final Queue<Long> queue = new ConcurrentLinkedQueue<>();
-        private final Set<Long> set = ConcurrentHashMap.newKeySet();
-        private final Map<Long, Long> lastSeenMs = new ConcurrentHashMap<>();
-
-        void touch(Long playerId) {
-            lastSeenMs.put(playerId, System.currentTimeMillis());
-        }
-
-        void enqueueOnce(Long playerId) {
-            touch(playerId);
-            if (set.add(playerId)) queue.add(playerId);
-        }
-
-        Long pollDifferent(Long playerId) {
-            long now = System.currentTimeMillis();
-            while (true) {
-                Long candidate = queue.poll();
-                if (candidate == null) return null;
-
-                set.remove(candidate);
-
-                Long seen = lastSeenMs.get(candidate);
-                if (seen == null || (now - seen) > QUEUE_STALE_MS) {
-                    lastSeenMs.remove(candidate);
-                    continue;
-                }
-
-                // Consume this queue slot.
-                lastSeenMs.remove(candidate);
-                if (!Objects.equals(candidate, playerId)) {
-                    return candidate;
-                }
-            }
-        }
-    }
+    private static final Set<String> MODES = Set.of("online");
+    private static final Set<String> TIME_CONTROLS = Set.of("BULLET", "BLITZ", "RAPID", "CLASSICAL");
+    private static final Pattern MINUTES_PLUS_SECONDS = Pattern.compile("(\\d{1,3})\\+(\\d{1,3})");
+    private static final int MAX_MINUTES = 180;
+    private static final int MAX_INCREMENT_SECONDS = 60;
 
     private static final class MatchResult {
+        private final String key;
         private final Long gameId;
         private final Long whitePlayerId;
         private final Long blackPlayerId;
         private final Set<Long> pendingAcks = ConcurrentHashMap.newKeySet();
         private final long createdAtMs;
 
-        private MatchResult(Long gameId, Long whitePlayerId, Long blackPlayerId) {
+        private MatchResult(String key, Long gameId, Long whitePlayerId, Long blackPlayerId, long createdAtMs) {
+            this.key = key;
             this.gameId = gameId;
             this.whitePlayerId = whitePlayerId;
             this.blackPlayerId = blackPlayerId;
-            this.createdAtMs = System.currentTimeMillis();
+            this.createdAtMs = createdAtMs;
             this.pendingAcks.add(whitePlayerId);
             this.pendingAcks.add(blackPlayerId);
         }
 
-        Map<String, Object> toResponseFor(Long playerId) {
-            // Mark this player as having received the match.
-            pendingAcks.remove(playerId);
-
+        Map<String, Object> payload() {
             Map<String, Object> m = new HashMap<>();
             m.put("message", "MATCHED");
             m.put("gameId", gameId);
@@ -93,113 +79,344 @@ public class MatchmakingService {
         }
     }
 
-    private final Map<String, WaitingQueue> queues = new ConcurrentHashMap<>();
+    /** Meters of one queue key, registered once so recording never looks up or allocates. */
+    private static final class QueueMeters {
+        final Counter polls;
+        final Counter matches;
+        final Counter stale;
+        final Counter failedGames;
+        final Timer timeToMatch;
+
+        QueueMeters(String key, RatingPool pool, MeterRegistry registry) {
+            Tags tags = Tags.of("queue", key);
+            Gauge.builder("matchmaking.queue.depth", pool, RatingPool::depth)
+                    .description("Players waiting in the queue after the last sweep")
+                    .tags(tags)
+                    .register(registry);
+            polls = registry.counter("matchmaking.requests", tags);
+            matches = registry.counter("matchmaking.matches", tags);
+            stale = registry.counter("matchmaking.evictions", tags.and("reason", "stale"));
+            failedGames = registry.counter("matchmaking.games.failed", tags);
+            timeToMatch = Timer.builder("matchmaking.wait")
+                    .description("Time from joining the queue to the match being published")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.9, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+
+    private final Map<String, RatingPool> pools = new ConcurrentHashMap<>();
+    private final Map<String, QueueMeters> meters = new ConcurrentHashMap<>();
     private final Map<Long, MatchResult> playerToMatch = new ConcurrentHashMap<>();
+    private final MatchStreams streams = new MatchStreams();
+    private final long streamTimeoutMs;
+    private boolean recovering;
+
+    public MatchmakingService(
+            GameCreator games,
+            RatingCache ratings,
+            MatchJournal journal,
+            MeterRegistry registry,
+            @Value("${matchmaking.band.initial:50}") int initialBand,
+            @Value("${matchmaking.band.widen-per-second:25}") int bandPerSecond,
+            @Value("${matchmaking.band.max:800}") int maxBand,
+            @Value("${matchmaking.events.timeout-ms:600000}") long streamTimeoutMs) {
+        this.games = games;
+        this.ratings = ratings;
+        this.journal = journal;
+        this.registry = registry;
+        this.expiredMatches = registry.counter("matchmaking.matches.expired");
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.band = waitedMs -> (int) Math.min(maxBand, initialBand + bandPerSecond * (waitedMs / 1000));
+    }
 
     public Map<String, Object> findMatch(Long playerId, String mode, String timeControl) {
+        return findMatch(playerId, null, mode, timeControl);
+    }
+
+    public Map<String, Object> findMatch(Long playerId, String username, String mode, String timeControl) {
+        return findMatch(playerId, username, null, mode, timeControl);
+    }
+
+    /**
+     * Poll for a match. The first poll joins the rating pool of the mode/time-control queue;
+     * later polls keep the entry alive until {@link #sweep()} pairs the player. A known
+     * {@code rating} (from the gateway's identity headers) skips the rating lookup.
+     */
+    public Map<String, Object> findMatch(Long playerId, String username, Integer knownRating, String mode, String timeControl) {
         if (playerId == null) {
             return Map.of("message", "Missing playerId");
         }
 
+        String key = queueKey(mode, timeControl);
+        RatingPool pool = pool(key);
+        meters.get(key).polls.increment();
+
+        // Otherwise served from the rating cache; user-service is only asked on a miss.
+        int rating = knownRating != null ? knownRating : ratings.ratingOf(username);
+
         // If this player was already matched, return the same gameId.
-        MatchResult existing = playerToMatch.get(playerId);
-        if (existing != null) {
-            if (existing.isExpired()) {
-                playerToMatch.remove(existing.whitePlayerId);
-                playerToMatch.remove(existing.blackPlayerId);
-            } else {
-            Map<String, Object> res = existing.toResponseFor(playerId);
-            if (existing.fullyAcknowledged()) {
-                // Clean up mapping for both players.
-                playerToMatch.remove(existing.whitePlayerId);
-                playerToMatch.remove(existing.blackPlayerId);
+        Map<String, Object> matched = pollMatch(playerId);
+        if (matched != null) return matched;
+
+        // A match published after the check above also posts its release after this enqueue,
+        // and the pool applies both in order, so the player cannot be queued twice.
+        long now = System.currentTimeMillis();
+        pool.post(p -> {
+            if (p.enqueue(playerId, rating, now)) journal.enqueued(key, playerId, rating, now);
+        });
+        return Map.of(
+                "message", "Waiting for opponent",
+                "queue", key
+        );
+    }
+
+    /**
+     * Enqueue once and wait on an event stream: the player joins the queue, receives a
+     * {@code waiting} event, then a {@code matched} event with the game when {@link #sweep()}
+     * pairs them. The open stream keeps the entry alive in place of polling; reconnecting
+     * with the same arguments resumes the same wait.
+     */
+    public SseEmitter subscribe(Long playerId, String username, String mode, String timeControl) {
+        return subscribe(playerId, username, null, mode, timeControl);
+    }
+
+    public SseEmitter subscribe(Long playerId, String username, Integer knownRating, String mode, String timeControl) {
+        if (playerId == null) {
+            throw new RuntimeException("Missing playerId");
+        }
+        queueKey(mode, timeControl); // refuses an unknown queue before a stream is opened
+        SseEmitter emitter = streams.open(playerId, streamTimeoutMs);
+
+        Map<String, Object> status = findMatch(playerId, username, knownRating, mode, timeControl);
+        streams.send(playerId, "MATCHED".equals(status.get("message")) ? "matched" : "waiting", status);
+        return emitter;
+    }
+
+    /**
+     * Streams are the liveness signal for waiters that subscribed: each heartbeat that reaches
+     * the client refreshes the entry, and a stream found broken takes the player out at once.
+     * Pollers of {@code /find} still expire after {@code QUEUE_STALE_MS} without a poll.
+     */
+    @Scheduled(fixedDelayString = "${matchmaking.events.heartbeat-ms:5000}")
+    public void heartbeat() {
+        streams.heartbeat(alive -> {
+            long now = System.currentTimeMillis();
+            for (RatingPool pool : pools.values()) {
+                pool.post(p -> {
+                    for (Long playerId : alive) p.touch(playerId, now);
+                });
             }
-            return res;
+        }, this::leave);
+    }
+
+    private void leave(Long playerId) {
+        for (RatingPool pool : pools.values()) {
+            pool.post(p -> p.remove(playerId));
+        }
+    }
+
+    /**
+     * One matching pass over every queue, and the only reader of the pools: it applies the
+     * changes posted since the last pass, drops stale waiters and pairs the rest. Request
+     * threads never wait for it. The games are created asynchronously by {@link GameCreator}
+     * and each match is published when its game exists. Must not run concurrently with itself,
+     * which the scheduler's fixed delay guarantees.
+     */
+    @Scheduled(fixedDelayString = "${matchmaking.sweep-interval-ms:500}")
+    public void sweep() {
+        for (Map.Entry<String, RatingPool> e : pools.entrySet()) {
+            String key = e.getKey();
+            RatingPool pool = e.getValue();
+            List<RatingPool.Waiter[]> pairs = pool.sweep(System.currentTimeMillis(), QUEUE_STALE_MS, band);
+
+            String timeControl = key.substring(key.indexOf(':') + 1);
+            for (RatingPool.Waiter[] pair : pairs) {
+                games.create(pair[0].playerId, pair[1].playerId, timeControl)
+                        .thenAccept(gameId -> publish(key, pool, pair, gameId));
             }
         }
+        expireMatches();
 
-        String key = normalizeQueueKey(mode, timeControl);
-        WaitingQueue waiting = queues.computeIfAbsent(key, k -> new WaitingQueue());
-
-        // Keep this player's queue entry fresh if they are already waiting.
-        waiting.touch(playerId);
-
-        // Serialize matching per queue to avoid races creating multiple games.
-        synchronized (waiting) {
-            // Re-check after acquiring lock.
-            MatchResult lockedExisting = playerToMatch.get(playerId);
-            if (lockedExisting != null) {
-                if (lockedExisting.isExpired()) {
-                    playerToMatch.remove(lockedExisting.whitePlayerId);
-                    playerToMatch.remove(lockedExisting.blackPlayerId);
-                } else {
-                Map<String, Object> res = lockedExisting.toResponseFor(playerId);
-                if (lockedExisting.fullyAcknowledged()) {
-                    playerToMatch.remove(lockedExisting.whitePlayerId);
-                    playerToMatch.remove(lockedExisting.blackPlayerId);
-                }
-                return res;
-                }
+        long now = System.currentTimeMillis();
+        if (journal.snapshotDue(now)) journal.snapshot(this::dump, now);
+    }
+
+    private void publish(String key, RatingPool pool, RatingPool.Waiter[] pair, Long gameId) {
+        QueueMeters m = meters.get(key);
+        if (gameId == null) {
+            // Failed to create game; put both back so the next sweep can retry.
+            m.failedGames.increment();
+            pool.post(p -> {
+                p.requeue(pair[0]);
+                p.requeue(pair[1]);
+            });
+            return;
+        }
+        long now = System.currentTimeMillis();
+        m.matches.increment();
+        m.timeToMatch.record(now - pair[0].enqueuedAtMs, TimeUnit.MILLISECONDS);
+        m.timeToMatch.record(now - pair[1].enqueuedAtMs, TimeUnit.MILLISECONDS);
+        MatchResult result = new MatchResult(key, gameId, pair[0].playerId, pair[1].playerId, now);
+        playerToMatch.put(result.whitePlayerId, result);
+        playerToMatch.put(result.blackPlayerId, result);
+        // Journaled after it is visible, so a snapshot taken in between repeats it rather than losing it.
+        journal.matched(key, gameId, result.whitePlayerId, result.blackPlayerId, result.createdAtMs);
+        pool.post(p -> {
+            p.release(pair[0]);
+            p.release(pair[1]);
+        });
+        push(result);
+    }
+
+    /** Delivers a new match to whichever of its players are subscribed; pollers pick it up from /find. */
+    private void push(MatchResult result) {
+        for (Long playerId : List.of(result.whitePlayerId, result.blackPlayerId)) {
+            if (streams.send(playerId, "matched", result.payload())) {
+                ack(result, playerId);
             }
+        }
+        if (result.fullyAcknowledged()) {
+            playerToMatch.remove(result.whitePlayerId, result);
+            playerToMatch.remove(result.blackPlayerId, result);
+        }
+    }
 
-            Long opponentId;
-            while ((opponentId = waiting.pollDifferent(playerId)) != null) {
-                // If opponent is already matched (or stale match), skip and keep searching.
-                MatchResult opponentExisting = playerToMatch.get(opponentId);
-                if (opponentExisting != null) {
-                    if (opponentExisting.isExpired()) {
-                        playerToMatch.remove(opponentExisting.whitePlayerId);
-                        playerToMatch.remove(opponentExisting.blackPlayerId);
-                    }
-                    continue;
-                }
+    private Map<String, Object> pollMatch(Long playerId) {
+        MatchResult existing = playerToMatch.get(playerId);
+        if (existing == null) return null;
+        // Expired matches are dropped (and counted) by the next sweep.
+        if (existing.isExpired()) return null;
+        Map<String, Object> res = existing.payload();
+        ack(existing, playerId);
+        if (existing.fullyAcknowledged()) {
+            // Clean up mapping for both players.
+            playerToMatch.remove(existing.whitePlayerId);
+            playerToMatch.remove(existing.blackPlayerId);
+        }
+        return res;
+    }
 
-                Long whiteId = opponentId;
-                Long blackId = playerId;
-
-                String url =
-                        "http://localhost:8082/api/games/create" +
-                                "?whitePlayerId=" + whiteId +
-                                "&blackPlayerId=" + blackId;
-
-                Map<String, Object> game = restTemplate.postForObject(url, null, Map.class);
-                Object rawId = (game != null) ? (game.get("gameId") != null ? game.get("gameId") : game.get("id")) : null;
-                Long createdGameId = null;
-                if (rawId instanceof Number n) {
-                    createdGameId = n.longValue();
-                } else if (rawId instanceof String s) {
-                    try {
-                        createdGameId = Long.parseLong(s);
-                    } catch (NumberFormatException ignored) {
-                        createdGameId = null;
-                    }
-                }
+    /** Marks the match as received by this player. */
+    private void ack(MatchResult result, Long playerId) {
+        if (result.pendingAcks.remove(playerId)) journal.acked(playerId);
+    }
 
-                if (createdGameId == null) {
-                    // Failed to create game; re-enqueue both so they can retry.
-                    waiting.enqueueOnce(opponentId);
-                    waiting.enqueueOnce(playerId);
-                    return Map.of("message", "Failed to create game");
-                }
+    private void expireMatches() {
+        for (MatchResult m : playerToMatch.values()) {
+            if (!m.isExpired()) continue;
+            // Counted once, by whichever of its two entries is removed first.
+            if (playerToMatch.remove(m.whitePlayerId, m) | playerToMatch.remove(m.blackPlayerId, m)) {
+                expiredMatches.increment();
+            }
+        }
+    }
+
+    private RatingPool pool(String key) {
+        RatingPool pool = pools.get(key);
+        return pool != null ? pool : pools.computeIfAbsent(key, this::newPool);
+    }
+
+    private RatingPool newPool(String key) {
+        RatingPool pool = new RatingPool((playerId, stale) -> {
+            if (stale) meters.get(key).stale.increment();
+            if (!recovering) journal.removed(key, playerId);
+        });
+        meters.put(key, new QueueMeters(key, pool, registry));
+        return pool;
+    }
 
-                MatchResult result = new MatchResult(createdGameId, whiteId, blackId);
-                playerToMatch.put(whiteId, result);
-                playerToMatch.put(blackId, result);
+    // ===== Journal =====
+
+    /**
+     * Rebuilds the queues and undelivered matches from the journal before the first sweep.
+     * Recovered waiters count as just seen, so clients have the usual grace period to come back.
+     */
+    @PostConstruct
+    public void recover() {
+        long now = System.currentTimeMillis();
+        recovering = true;
+        journal.replay(new MatchEvents() {
+            @Override
+            public void enqueued(String key, long playerId, int rating, long enqueuedAtMs) {
+                pool(key).restore(playerId, rating, enqueuedAtMs, now);
+            }
+
+            @Override
+            public void removed(String key, long playerId) {
+                pool(key).remove(playerId);
+            }
 
-                return result.toResponseFor(playerId);
+            @Override
+            public void matched(String key, long gameId, long whitePlayerId, long blackPlayerId, long createdAtMs) {
+                RatingPool pool = pool(key);
+                pool.remove(whitePlayerId);
+                pool.remove(blackPlayerId);
+                MatchResult result = new MatchResult(key, gameId, whitePlayerId, blackPlayerId, createdAtMs);
+                playerToMatch.put(whitePlayerId, result);
+                playerToMatch.put(blackPlayerId, result);
             }
 
-            waiting.enqueueOnce(playerId);
-            return Map.of(
-                    "message", "Waiting for opponent",
-                    "queue", key
-            );
+            @Override
+            public void acked(long playerId) {
+                MatchResult result = playerToMatch.get(playerId);
+                if (result == null) return;
+                result.pendingAcks.remove(playerId);
+                if (result.fullyAcknowledged()) {
+                    playerToMatch.remove(result.whitePlayerId, result);
+                    playerToMatch.remove(result.blackPlayerId, result);
+                }
+            }
+        });
+        recovering = false;
+        // Start the new run from a compact snapshot instead of the replayed journal.
+        journal.snapshot(this::dump, now);
+    }
+
+    // Reports the whole state as events; runs on the sweep thread, the only reader of the pools.
+    private void dump(MatchEvents out) {
+        for (Map.Entry<String, RatingPool> e : pools.entrySet()) {
+            for (RatingPool.Waiter w : e.getValue().waiters()) {
+                out.enqueued(e.getKey(), w.playerId, w.rating, w.enqueuedAtMs);
+            }
+        }
+        Set<MatchResult> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+        matches.addAll(playerToMatch.values());
+        for (MatchResult m : matches) {
+            out.matched(m.key, m.gameId, m.whitePlayerId, m.blackPlayerId, m.createdAtMs);
+            if (!m.pendingAcks.contains(m.whitePlayerId)) out.acked(m.whitePlayerId);
+            if (!m.pendingAcks.contains(m.blackPlayerId)) out.acked(m.blackPlayerId);
         }
     }
 
-    private static String normalizeQueueKey(String mode, String timeControl) {
+    /**
+     * The queue a request joins: normalized mode and time control, e.g. {@code online:BLITZ}.
+     * Every key gets its own pool and meters, so only the lobby's values are accepted: mode
+     * {@code online}, and a lobby time control or whole "minutes+seconds" such as {@code 3+2}.
+     * Anything else is a 400.
+     */
+    public static String queueKey(String mode, String timeControl) {
         String m = (mode == null || mode.isBlank()) ? "online" : mode.trim().toLowerCase();
-        String t = (timeControl == null || timeControl.isBlank()) ? "default" : timeControl.trim().toUpperCase();
-        return m + ":" + t;
+        if (!MODES.contains(m)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown mode");
+        }
+        return m + ":" + timeControlKey(timeControl);
+    }
+
+    private static String timeControlKey(String timeControl) {
+        if (timeControl == null || timeControl.isBlank()) return "default";
+        String t = timeControl.trim().toUpperCase();
+        if (TIME_CONTROLS.contains(t)) return t;
+        Matcher increment = MINUTES_PLUS_SECONDS.matcher(t);
+        if (increment.matches()) {
+            int minutes = Integer.parseInt(increment.group(1));
+            int seconds = Integer.parseInt(increment.group(2));
+            // Written back without leading zeros, so "03+02" and "3+2" share a queue.
+            if (minutes >= 1 && minutes <= MAX_MINUTES && seconds <= MAX_INCREMENT_SECONDS) {
+                return minutes + "+" + seconds;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown time control");
     }
 }
@@ -0,0 +1,75 @@
+package com.chadharangam.matchmakingservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Elo ratings by username, fetched from user-service on first use and kept for
+ * {@code matchmaking.rating.ttl-ms}. Lookups never fail: if user-service is unavailable
+ * the player is treated as {@link #DEFAULT_RATING} for a short while. Past
+ * {@code matchmaking.rating.max-entries} the least recently used rating is dropped.
+ */
+@Component
+public class RatingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingCache.class);
+
+    public static final int DEFAULT_RATING = 1200;
+    private static final long FAILURE_TTL_MS = 30_000;
+
+    private record Entry(int rating, long expiresAtMs) {
+    }
+
+    private final RestTemplate restTemplate;
+    private final String userServiceUrl;
+    private final long ttlMs;
+    private final Map<String, Entry> entries;
+
+    public RatingCache(
+            RestTemplate restTemplate,
+            @Value("${matchmaking.user-service-url:http://user-service}") String userServiceUrl,
+            @Value("${matchmaking.rating.ttl-ms:600000}") long ttlMs,
+            @Value("${matchmaking.rating.max-entries:100000}") int maxEntries) {
+        this.restTemplate = restTemplate;
+        this.userServiceUrl = userServiceUrl;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public int ratingOf(String username) {
+        if (username == null || username.isBlank()) return DEFAULT_RATING;
+
+        long now = System.currentTimeMillis();
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(username);
+        }
+        if (cached != null && cached.expiresAtMs() > now) return cached.rating();
+
+        Entry fresh;
+        try {
+            Map<?, ?> body = restTemplate.getForObject(userServiceUrl + "/api/users/{username}/rating", Map.class, username);
+            Object rating = body != null ? body.get("eloRating") : null;
+            fresh = new Entry(rating instanceof Number n ? n.intValue() : DEFAULT_RATING, now + ttlMs);
+        } catch (RuntimeException e) {
+            log.warn("Rating lookup for {} failed; using {}", username, cached != null ? cached.rating() : DEFAULT_RATING, e);
+            fresh = new Entry(cached != null ? cached.rating() : DEFAULT_RATING, now + FAILURE_TTL_MS);
+        }
+
+        synchronized (entries) {
+            entries.put(username, fresh);
+        }
+        return fresh.rating();
+    }
+}
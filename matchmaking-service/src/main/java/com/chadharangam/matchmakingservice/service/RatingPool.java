@@ -0,0 +1,192 @@
+package com.chadharangam.matchmakingservice.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Waiting players of one queue key, ordered by rating. The pool has a single reader: other
+ * threads {@link #post} changes to a lock-free inbox, and the matcher applies them, in order,
+ * at the start of each {@link #sweep}. A waiter picked by {@link #sweep} leaves the rating
+ * order but stays registered until {@link #release} or {@link #requeue}, so a poll arriving
+ * while its game is being created cannot enqueue the player a second time.
+ */
+final class RatingPool {
+
+    static final class Waiter {
+        final Long playerId;
+        final int rating;
+        final long enqueuedAtMs;
+        final long seq;
+        long lastSeenMs;
+
+        Waiter(Long playerId, int rating, long now, long seq) {
+            this.playerId = playerId;
+            this.rating = rating;
+            this.enqueuedAtMs = now;
+            this.lastSeenMs = now;
+            this.seq = seq;
+        }
+    }
+
+    /** How far apart two ratings may be for a waiter who has waited {@code waitedMs}. */
+    interface Band {
+        int width(long waitedMs);
+    }
+
+    private static final Comparator<Waiter> BY_RATING =
+            Comparator.<Waiter>comparingInt(w -> w.rating).thenComparingLong(w -> w.seq);
+
+    private final Queue<Consumer<RatingPool>> inbox = new ConcurrentLinkedQueue<>();
+    private final TreeSet<Waiter> byRating = new TreeSet<>(BY_RATING);
+    private final Map<Long, Waiter> byPlayer = new HashMap<>();
+    private final Removals onRemoved;
+    private long nextSeq;
+    private volatile int depth;
+
+    /** Hears of every waiter that leaves without a match: dropped as stale, or removed. */
+    interface Removals {
+        void removed(Long playerId, boolean stale);
+    }
+
+    RatingPool() {
+        this((playerId, stale) -> {
+        });
+    }
+
+    RatingPool(Removals onRemoved) {
+        this.onRemoved = onRemoved;
+    }
+
+    /** Queues a change from any thread; it is applied by the next {@link #sweep}. */
+    void post(Consumer<RatingPool> change) {
+        inbox.add(change);
+    }
+
+    /** Adds the player, or refreshes their last-seen time if already waiting; true if added. */
+    boolean enqueue(Long playerId, int rating, long now) {
+        return restore(playerId, rating, now, now);
+    }
+
+    /** Adds a player who started waiting at {@code enqueuedAtMs}, as recovered after a restart. */
+    boolean restore(Long playerId, int rating, long enqueuedAtMs, long now) {
+        Waiter existing = byPlayer.get(playerId);
+        if (existing != null) {
+            existing.lastSeenMs = now;
+            return false;
+        }
+        Waiter w = new Waiter(playerId, rating, enqueuedAtMs, nextSeq++);
+        w.lastSeenMs = now;
+        byPlayer.put(playerId, w);
+        byRating.add(w);
+        return true;
+    }
+
+    /** Refreshes the last-seen time of a waiting player, as a heartbeat on their stream does. */
+    void touch(Long playerId, long now) {
+        Waiter w = byPlayer.get(playerId);
+        if (w != null) w.lastSeenMs = now;
+    }
+
+    /** Takes a still-waiting player out of the queue; a player already picked for a game stays. */
+    void remove(Long playerId) {
+        Waiter w = byPlayer.get(playerId);
+        if (w != null && byRating.remove(w)) {
+            byPlayer.remove(playerId);
+            onRemoved.removed(playerId, false);
+        }
+    }
+
+    /** Every registered waiter, including those whose game is being created. */
+    Collection<Waiter> waiters() {
+        return byPlayer.values();
+    }
+
+    int size() {
+        return byRating.size();
+    }
+
+    /** Waiting players as of the end of the last sweep; safe to read from any thread. */
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * Applies posted changes, drops waiters not seen for {@code staleMs}, then pairs the closest compatible waiters:
+     * two players match when their rating gap fits both of their current bands. Candidate pairs
+     * are neighbours in rating order, taken closest first; unpaired waiters are re-examined
+     * against their new neighbours until no pair fits.
+     */
+    List<Waiter[]> sweep(long now, long staleMs, Band band) {
+        for (Consumer<RatingPool> change; (change = inbox.poll()) != null; ) {
+            change.accept(this);
+        }
+
+        List<Waiter> live = new ArrayList<>(byRating.size());
+        for (Iterator<Waiter> it = byRating.iterator(); it.hasNext(); ) {
+            Waiter w = it.next();
+            if (now - w.lastSeenMs > staleMs) {
+                it.remove();
+                byPlayer.remove(w.playerId);
+                onRemoved.removed(w.playerId, true);
+            } else {
+                live.add(w);
+            }
+        }
+
+        List<Waiter[]> pairs = new ArrayList<>();
+        while (live.size() >= 2) {
+            List<int[]> candidates = new ArrayList<>();
+            for (int i = 0; i + 1 < live.size(); i++) {
+                Waiter a = live.get(i);
+                Waiter b = live.get(i + 1);
+                int gap = b.rating - a.rating;
+                if (gap <= band.width(now - a.enqueuedAtMs) && gap <= band.width(now - b.enqueuedAtMs)) {
+                    candidates.add(new int[]{gap, i});
+                }
+            }
+            if (candidates.isEmpty()) break;
+            candidates.sort(Comparator.comparingInt(c -> c[0]));
+
+            boolean[] taken = new boolean[live.size()];
+            for (int[] c : candidates) {
+                int i = c[1];
+                if (taken[i] || taken[i + 1]) continue;
+                taken[i] = true;
+                taken[i + 1] = true;
+                Waiter a = live.get(i);
+                Waiter b = live.get(i + 1);
+                byRating.remove(a);
+                byRating.remove(b);
+                // Whoever has waited longer plays White.
+                pairs.add(a.enqueuedAtMs <= b.enqueuedAtMs ? new Waiter[]{a, b} : new Waiter[]{b, a});
+            }
+
+            List<Waiter> rest = new ArrayList<>(live.size());
+            for (int i = 0; i < live.size(); i++) {
+                if (!taken[i]) rest.add(live.get(i));
+            }
+            live = rest;
+        }
+        depth = byRating.size();
+        return pairs;
+    }
+
+    /** Forgets a waiter whose match was published. */
+    void release(Waiter w) {
+        byPlayer.remove(w.playerId, w);
+    }
+
+    /** Puts a waiter back after its game could not be created; its wait time is kept. */
+    void requeue(Waiter w) {
+        if (byPlayer.get(w.playerId) == w) byRating.add(w);
+    }
+}
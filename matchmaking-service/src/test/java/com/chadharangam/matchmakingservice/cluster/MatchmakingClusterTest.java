@@ -0,0 +1,149 @@
+package com.chadharangam.matchmakingservice.cluster;
+
+import com.chadharangam.matchmakingservice.MatchmakingServiceApplication;
+import com.chadharangam.matchmakingservice.service.MatchmakingService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two matchmaking nodes in one JVM, sharing a static discovery list, with game-service and
+ * user-service stubbed. Players entering through the node that does not own their queue must
+ * still be paired with each other.
+ */
+class MatchmakingClusterTest {
+
+    private static HttpServer backend;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static int portA;
+    private static int portB;
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        AtomicLong gameIds = new AtomicLong(100);
+        backend = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        backend.createContext("/api/games/create-batch", exchange -> {
+            String pairs = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            StringJoiner games = new StringJoiner(",", "[", "]");
+            for (int i = pairs.indexOf("whitePlayerId"); i >= 0; i = pairs.indexOf("whitePlayerId", i + 1)) {
+                games.add("{\"id\":" + gameIds.incrementAndGet() + "}");
+            }
+            reply(exchange, games.toString());
+        });
+        backend.createContext("/api/users/", exchange -> reply(exchange, "{\"eloRating\":1500}"));
+        backend.start();
+
+        portA = freePort();
+        portB = freePort();
+        nodeA = start(portA);
+        nodeB = start(portB);
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        if (nodeA != null) nodeA.close();
+        if (nodeB != null) nodeB.close();
+        backend.stop(0);
+    }
+
+    @Test
+    void playersOnDifferentNodesMeetOnTheOwner() throws Exception {
+        String key = MatchmakingService.queueKey("online", "BLITZ");
+        boolean aOwns = nodeA.getBean(QueueRouter.class).ownerOf(key) == null;
+        boolean bOwns = nodeB.getBean(QueueRouter.class).ownerOf(key) == null;
+        assertTrue(aOwns ^ bOwns, "exactly one node owns " + key);
+        int entry = aOwns ? portB : portA;
+
+        // Player 1 waits on an event stream relayed by the non-owner; player 2 polls through it.
+        CompletableFuture<String> matched = CompletableFuture.supplyAsync(() -> awaitMatchedEvent(entry, 1L));
+        RestTemplate client = new RestTemplate();
+        Map<?, ?> poll = null;
+        for (int i = 0; i < 100 && !isMatched(poll); i++) {
+            poll = client.postForObject("http://localhost:" + entry + "/api/matchmaking/find",
+                    Map.of("playerId", 2, "username", "p2", "mode", "online", "timeControl", "BLITZ"), Map.class);
+            Thread.sleep(100);
+        }
+
+        assertTrue(isMatched(poll), "poller was matched");
+        Object gameId = poll.get("gameId");
+        assertNotNull(gameId);
+        assertTrue(matched.get(10, TimeUnit.SECONDS).contains("\"gameId\":" + gameId));
+    }
+
+    private static boolean isMatched(Map<?, ?> poll) {
+        return poll != null && "MATCHED".equals(poll.get("message"));
+    }
+
+    private static String awaitMatchedEvent(int port, long playerId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/api/matchmaking/events?playerId=" + playerId + "&username=p1&mode=online&timeControl=BLITZ"))
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        try {
+            HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                boolean inMatched = false;
+                for (String line; (line = reader.readLine()) != null; ) {
+                    if (line.equals("event:matched")) inMatched = true;
+                    else if (inMatched && line.startsWith("data:")) return line.substring(5);
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        throw new IllegalStateException("Stream ended without a match");
+    }
+
+    private static ConfigurableApplicationContext start(int port) {
+        String backendUrl = "http://localhost:" + backend.getAddress().getPort();
+        return new SpringApplicationBuilder(MatchmakingServiceApplication.class).run(
+                "--server.port=" + port,
+                "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.client.simple.instances.matchmaking-service[0].uri=http://localhost:" + portA,
+                "--spring.cloud.discovery.client.simple.instances.matchmaking-service[1].uri=http://localhost:" + portB,
+                "--spring.cloud.discovery.client.simple.instances.game-service[0].uri=" + backendUrl,
+                "--spring.cloud.discovery.client.simple.instances.user-service[0].uri=" + backendUrl,
+                "--matchmaking.sweep-interval-ms=100");
+    }
+
+    private static void reply(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.chadharangam.matchmakingservice.controller;
+
+import com.chadharangam.matchmakingservice.cluster.QueueForwarder;
+import com.chadharangam.matchmakingservice.cluster.QueueRouter;
+import com.chadharangam.matchmakingservice.security.IdentityFilter;
+import com.chadharangam.matchmakingservice.service.MatchmakingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MatchmakingControllerTest {
+
+    private static final String SECRET = "identity-secret";
+    private static final String FORGED = "{\"playerId\":1,\"username\":\"bob\",\"rating\":2900,\"mode\":\"online\",\"timeControl\":\"BLITZ\"}";
+
+    private MatchmakingService service;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(MatchmakingService.class);
+        when(service.findMatch(any(), any(), any(), anyString(), anyString())).thenReturn(Map.of("status", "WAITING"));
+        MatchmakingController controller = new MatchmakingController(
+                service, mock(QueueRouter.class), mock(QueueForwarder.class), SECRET);
+        mvc = MockMvcBuilders.standaloneSetup(controller).addFilters(new IdentityFilter(SECRET)).build();
+    }
+
+    @Test
+    void forwardedRequestsNeedTheSignedCaller() throws Exception {
+        mvc.perform(find().header(QueueForwarder.FORWARDED_HEADER, "1"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void bodyIdentityIsIgnored() throws Exception {
+        mvc.perform(signed(find().header(QueueForwarder.FORWARDED_HEADER, "1"), "2267157479", "alice", "1450"))
+                .andExpect(status().isOk());
+        verify(service).findMatch(2267157479L, "alice", 1450, "online", "BLITZ");
+    }
+
+    @Test
+    void unknownQueuesAreBadRequests() throws Exception {
+        mvc.perform(signed(post("/api/matchmaking/find").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mode\":\"online\",\"timeControl\":\"BLITZ-1\"}"), "7", "alice", "1450"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(signed(get("/api/matchmaking/events").param("mode", "arena").param("timeControl", "BLITZ"),
+                        "7", "alice", "1450"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(service);
+    }
+
+    private static MockHttpServletRequestBuilder find() {
+        return post("/api/matchmaking/find").contentType(MediaType.APPLICATION_JSON).content(FORGED);
+    }
+
+    // Signed the way the gateway's IdentityHeaders does it.
+    private static MockHttpServletRequestBuilder signed(MockHttpServletRequestBuilder request,
+                                                        String id, String name, String rating) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String issuedAt = Long.toString(System.currentTimeMillis());
+        byte[] signature = Arrays.copyOf(
+                mac.doFinal((id + '\n' + name + '\n' + rating + '\n' + issuedAt).getBytes(StandardCharsets.UTF_8)), 16);
+        return request
+                .header(IdentityFilter.USER_ID, id)
+                .header(IdentityFilter.USER_NAME, name)
+                .header(IdentityFilter.USER_RATING, rating)
+                .header(IdentityFilter.ISSUED_AT, issuedAt)
+                .header(IdentityFilter.SIGNATURE, Base64.getUrlEncoder().withoutPadding().encodeToString(signature));
+    }
+}
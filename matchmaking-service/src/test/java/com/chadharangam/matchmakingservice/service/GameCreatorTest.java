@@ -0,0 +1,107 @@
+package com.chadharangam.matchmakingservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GameCreatorTest {
+
+    private GameCreator creator;
+
+    @AfterEach
+    void tearDown() {
+        creator.shutdown();
+    }
+
+    @Test
+    void queuedPairingsAreCreatedInOneCall() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        CountDownLatch release = new CountDownLatch(1);
+        server.expect(requestTo("http://game-service/api/games/create-batch"))
+                .andExpect(method(POST))
+                .andRespond(request -> {
+                    await(release);
+                    return withSuccess("[{\"id\":7}]", MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        server.expect(requestTo("http://game-service/api/games/create-batch"))
+                .andRespond(withSuccess("[{\"id\":8},{\"id\":9},{\"id\":10}]", MediaType.APPLICATION_JSON));
+        creator = new GameCreator(restTemplate, new SimpleMeterRegistry(), "http://game-service", 256, 100);
+
+        // The first pairing holds the worker in game-service; the next three queue up behind it.
+        List<CompletableFuture<Long>> ids = new ArrayList<>();
+        ids.add(creator.create(1L, 2L, "BLITZ"));
+        Thread.sleep(200);
+        for (long p = 3; p < 9; p += 2) {
+            ids.add(creator.create(p, p + 1, "BLITZ"));
+        }
+        release.countDown();
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(7L + i, ids.get(i).get(5, TimeUnit.SECONDS));
+        }
+        server.verify();
+    }
+
+    @Test
+    void failedBatchCompletesWithoutAGame() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("http://game-service/api/games/create-batch")).andRespond(withServerError());
+        creator = new GameCreator(restTemplate, new SimpleMeterRegistry(), "http://game-service", 256, 100);
+
+        assertNull(creator.create(1L, 2L, "BLITZ").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fullQueueFailsThePairingAtOnce() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.expect(requestTo("http://game-service/api/games/create-batch"))
+                .andRespond(request -> {
+                    sending.countDown();
+                    await(release);
+                    return withSuccess("[{\"id\":7}]", MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        creator = new GameCreator(restTemplate, registry, "http://game-service", 256, 1);
+
+        // One pairing held in game-service, one queued behind it, the third has no room.
+        creator.create(1L, 2L, "BLITZ");
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        creator.create(3L, 4L, "BLITZ");
+        CompletableFuture<Long> overflow = creator.create(5L, 6L, "BLITZ");
+
+        assertNull(overflow.getNow(-1L));
+        assertEquals(1, registry.counter("matchmaking.create.rejected").count());
+        release.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.chadharangam.matchmakingservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MatchJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysSnapshotThenJournal() throws IOException {
+        MatchJournal journal = open();
+        journal.replay(new Recorder());
+        journal.enqueued("online:BLITZ", 1, 1500, 100);
+        journal.snapshot(out -> {
+            out.enqueued("online:BLITZ", 1, 1500, 100);
+            out.enqueued("online:BLITZ", 2, 1510, 200);
+        }, 1_000);
+        journal.matched("online:BLITZ", 42, 1, 2, 300);
+        journal.acked(2);
+        journal.removed("online:RAPID", 3);
+        journal.close();
+
+        Recorder recovered = new Recorder();
+        open().replay(recovered);
+
+        assertEquals(List.of(
+                "enqueued online:BLITZ 1 1500 100",
+                "enqueued online:BLITZ 2 1510 200",
+                "matched online:BLITZ 42 1 2 300",
+                "acked 2",
+                "removed online:RAPID 3"), recovered.events);
+    }
+
+    @Test
+    void journalOfAnOlderEpochIsIgnored() throws IOException {
+        MatchJournal journal = open();
+        journal.replay(new Recorder());
+        journal.snapshot(out -> out.enqueued("online:BLITZ", 1, 1500, 100), 1_000);
+        journal.acked(7);
+        journal.close();
+        Files.copy(dir.resolve("journal"), dir.resolve("journal.before"));
+
+        MatchJournal next = open();
+        next.replay(new Recorder());
+        next.snapshot(out -> out.enqueued("online:BLITZ", 9, 1500, 100), 2_000);
+        next.close();
+
+        // As if the process died after writing the new snapshot but before resetting the journal.
+        Files.move(dir.resolve("journal.before"), dir.resolve("journal"), StandardCopyOption.REPLACE_EXISTING);
+
+        Recorder recovered = new Recorder();
+        open().replay(recovered);
+
+        assertEquals(List.of("enqueued online:BLITZ 9 1500 100"), recovered.events);
+    }
+
+    private MatchJournal open() {
+        return new MatchJournal(dir.toString(), 4096, 60_000);
+    }
+
+    private static final class Recorder implements MatchEvents {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void enqueued(String key, long playerId, int rating, long enqueuedAtMs) {
+            events.add("enqueued " + key + " " + playerId + " " + rating + " " + enqueuedAtMs);
+        }
+
+        @Override
+        public void removed(String key, long playerId) {
+            events.add("removed " + key + " " + playerId);
+        }
+
+        @Override
+        public void matched(String key, long gameId, long whitePlayerId, long blackPlayerId, long createdAtMs) {
+            events.add("matched " + key + " " + gameId + " " + whitePlayerId + " " + blackPlayerId + " " + createdAtMs);
+        }
+
+        @Override
+        public void acked(long playerId) {
+            events.add("acked " + playerId);
+        }
+    }
+}
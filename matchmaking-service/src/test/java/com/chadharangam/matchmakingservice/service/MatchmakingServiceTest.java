@@ -0,0 +1,74 @@
+package com.chadharangam.matchmakingservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MatchmakingServiceTest {
+
+    private SimpleMeterRegistry registry;
+    private GameCreator games;
+    private MatchmakingService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        games = mock(GameCreator.class);
+        RatingCache ratings = mock(RatingCache.class);
+        when(ratings.ratingOf(any())).thenReturn(1500);
+        service = new MatchmakingService(games, ratings, MatchJournal.disabled(), registry, 50, 25, 800, 600_000);
+    }
+
+    @Test
+    void recordsMatchesPerQueue() {
+        when(games.create(any(), any(), anyString())).thenReturn(CompletableFuture.completedFuture(7L));
+
+        service.findMatch(1L, "a", "online", "BLITZ");
+        service.findMatch(2L, "b", "online", "BLITZ");
+        service.findMatch(3L, "c", "online", "RAPID");
+        service.sweep();
+
+        assertEquals(1, registry.counter("matchmaking.matches", "queue", "online:BLITZ").count());
+        assertEquals(2, registry.timer("matchmaking.wait", "queue", "online:BLITZ").count());
+        assertEquals(0, registry.get("matchmaking.queue.depth").tag("queue", "online:BLITZ").gauge().value());
+        assertEquals(1, registry.get("matchmaking.queue.depth").tag("queue", "online:RAPID").gauge().value());
+        assertEquals(3, registry.get("matchmaking.requests").counters().stream().mapToDouble(c -> c.count()).sum());
+    }
+
+    @Test
+    void countsFailedGameCreations() {
+        when(games.create(any(), any(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        service.findMatch(1L, "a", "online", "BLITZ");
+        service.findMatch(2L, "b", "online", "BLITZ");
+        service.sweep();
+
+        assertEquals(1, registry.counter("matchmaking.games.failed", "queue", "online:BLITZ").count());
+        assertEquals(0, registry.counter("matchmaking.matches", "queue", "online:BLITZ").count());
+    }
+
+    @Test
+    void onlyLobbyQueuesGetAPoolAndMeters() {
+        assertEquals("online:3+2", MatchmakingService.queueKey(" Online ", "03+02"));
+        assertEquals("online:default", MatchmakingService.queueKey(null, ""));
+
+        for (String timeControl : new String[] {"HYPERBULLET", "0+5", "181+0", "3+61", "1.5+0", "x".repeat(64)}) {
+            assertThrows(ResponseStatusException.class, () -> service.findMatch(1L, "a", "online", timeControl));
+        }
+        assertThrows(ResponseStatusException.class, () -> service.findMatch(1L, "a", "ranked-" + 1, "BLITZ"));
+        assertThrows(ResponseStatusException.class, () -> service.subscribe(1L, "a", "online", "BLITZ2"));
+
+        assertTrue(registry.find("matchmaking.requests").counters().isEmpty());
+    }
+}
@@ -0,0 +1,39 @@
+package com.chadharangam.matchmakingservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RatingCacheTest {
+
+    @Test
+    void aFullCacheDropsOnlyTheLeastRecentlyUsedRating() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        server.expect(once(), requestTo("http://user-service/api/users/alice/rating"))
+                .andRespond(withSuccess("{\"eloRating\":1500}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://user-service/api/users/bob/rating"))
+                .andRespond(withSuccess("{\"eloRating\":1600}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://user-service/api/users/carol/rating"))
+                .andRespond(withSuccess("{\"eloRating\":1700}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://user-service/api/users/bob/rating"))
+                .andRespond(withSuccess("{\"eloRating\":1610}", MediaType.APPLICATION_JSON));
+        RatingCache ratings = new RatingCache(restTemplate, "http://user-service", 600_000, 2);
+
+        assertEquals(1500, ratings.ratingOf("alice"));
+        assertEquals(1600, ratings.ratingOf("bob"));
+        assertEquals(1500, ratings.ratingOf("alice"));
+        // Full: carol pushes out bob, the one not used since; alice stays cached.
+        assertEquals(1700, ratings.ratingOf("carol"));
+        assertEquals(1500, ratings.ratingOf("alice"));
+        assertEquals(1610, ratings.ratingOf("bob"));
+
+        server.verify();
+    }
+}
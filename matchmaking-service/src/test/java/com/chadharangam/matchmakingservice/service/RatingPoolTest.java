@@ -0,0 +1,117 @@
+package com.chadharangam.matchmakingservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RatingPoolTest {
+
+    // 100 points to start, +100 per second waited.
+    private static final RatingPool.Band BAND = waitedMs -> (int) (100 + 100 * (waitedMs / 1000));
+
+    @Test
+    void pairsClosestRatingsFirst() {
+        RatingPool pool = new RatingPool();
+        pool.enqueue(1L, 1500, 0);
+        pool.enqueue(2L, 2400, 0);
+        pool.enqueue(3L, 1520, 0);
+        pool.enqueue(4L, 2390, 0);
+
+        List<RatingPool.Waiter[]> pairs = pool.sweep(0, 15_000, BAND);
+
+        assertEquals(2, pairs.size());
+        for (RatingPool.Waiter[] pair : pairs) {
+            assertTrue(Math.abs(pair[0].rating - pair[1].rating) <= 20);
+        }
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void bandWidensWithWaitTime() {
+        RatingPool pool = new RatingPool();
+        pool.enqueue(1L, 1200, 0);
+        pool.enqueue(2L, 1500, 0);
+
+        assertTrue(pool.sweep(1_000, 15_000, BAND).isEmpty()); // band 200 < gap 300
+        assertEquals(1, pool.sweep(2_000, 15_000, BAND).size()); // band 300
+    }
+
+    @Test
+    void newcomerMustAlsoAcceptTheGap() {
+        RatingPool pool = new RatingPool();
+        pool.enqueue(1L, 1200, 0);
+        pool.enqueue(2L, 1500, 5_000);
+
+        // Player 1 has waited long enough for a 300 gap, player 2 has not.
+        assertTrue(pool.sweep(5_000, 15_000, BAND).isEmpty());
+    }
+
+    @Test
+    void reexaminesNeighboursOfAlreadyPairedWaiters() {
+        RatingPool pool = new RatingPool();
+        pool.enqueue(1L, 1000, 0);
+        pool.enqueue(2L, 1005, 0);
+        pool.enqueue(3L, 1008, 0);
+        pool.enqueue(4L, 1090, 0);
+
+        // 2-3 is the closest pair; 1 and 4 become neighbours and still fit the band.
+        assertEquals(2, pool.sweep(0, 15_000, BAND).size());
+    }
+
+    @Test
+    void dropsStaleWaitersAndKeepsMatchedOnesRegistered() {
+        RatingPool pool = new RatingPool();
+        pool.enqueue(1L, 1200, 0);
+        pool.enqueue(2L, 1210, 10_000);
+        pool.enqueue(3L, 1220, 10_000);
+
+        List<RatingPool.Waiter[]> pairs = pool.sweep(16_000, 15_000, BAND);
+        assertEquals(1, pairs.size());
+
+        // A poll while the game is being created must not enqueue the player again.
+        pool.enqueue(2L, 1210, 16_000);
+        assertEquals(0, pool.size());
+
+        pool.requeue(pairs.get(0)[0]);
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void heartbeatsKeepSubscribersFreshAndDisconnectsLeave() {
+        RatingPool pool = new RatingPool();
+        pool.enqueue(1L, 1200, 0);
+        pool.enqueue(2L, 2000, 0);
+        pool.enqueue(3L, 2010, 0);
+
+        // Player 1 never polls again, but their stream heartbeat reaches them.
+        pool.touch(1L, 14_000);
+        pool.remove(3L);
+        assertTrue(pool.sweep(16_000, 15_000, BAND).isEmpty());
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void changesPostedFromManyThreadsAreAppliedBySweep() throws InterruptedException {
+        RatingPool pool = new RatingPool();
+        Thread[] producers = new Thread[8];
+        for (int t = 0; t < producers.length; t++) {
+            long base = t * 1_000L;
+            producers[t] = new Thread(() -> {
+                for (long id = base; id < base + 1_000; id++) {
+                    long playerId = id;
+                    pool.post(p -> p.enqueue(playerId, 1500, 0));
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) producer.join();
+        pool.post(p -> p.remove(0L));
+        pool.post(p -> p.remove(1L));
+
+        assertEquals(0, pool.size()); // nothing applied until the matcher runs
+        assertEquals(3_999, pool.sweep(0, 15_000, BAND).size());
+    }
+}
@@ -1,14 +1,34 @@
 package com.chadharangam.notificationservice;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class NotificationServiceApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(NotificationServiceApplication.class, args);
     }
+
+    // Resolves service names (http://game-service) through Eureka. With timeouts, so a hung
+    // game-service cannot hold a STOMP subscription check (GameRoster) for ever.
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate(
+            @Value("${notification.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${notification.http.read-timeout-ms:5000}") int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requests = new SimpleClientHttpRequestFactory();
+        requests.setConnectTimeout(connectTimeoutMs);
+        requests.setReadTimeout(readTimeoutMs);
+        return new RestTemplate(requests);
+    }
 }
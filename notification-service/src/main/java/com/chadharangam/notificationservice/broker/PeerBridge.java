@@ -0,0 +1,186 @@
+package com.chadharangam.notificationservice.broker;
+
+import com.chadharangam.notificationservice.dto.MoveEvent;
+import com.chadharangam.notificationservice.security.InternalSignature;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pub/sub between notification-service instances for {@code notification.broker.mode=peers}.
+ * Each instance keeps its own subscriptions in the simple broker; moves game-service posts to
+ * one instance are handed on to every other instance the {@link DiscoveryClient} reports, which
+ * deliver them to their own subscribers. Forwarded batches carry {@link #FORWARDED_HEADER} and
+ * are not handed on again; like game-service's, they are signed with {@link InternalSignature}.
+ *
+ * <p>Every peer has its own bounded queue and sender thread, so a slow or dead peer loses its
+ * own backlog (clients there catch up from the move history) without delaying the others.
+ */
+@Component
+public class PeerBridge {
+
+    public static final String FORWARDED_HEADER = "X-Notification-Forwarded";
+
+    private static final Logger log = LoggerFactory.getLogger(PeerBridge.class);
+
+    private static final String MOVES_PATH = "/internal/notifications/moves";
+
+    private final DiscoveryClient discovery;
+    private final InternalSignature signature;
+    private final ObjectMapper json;
+    private final String serviceId;
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int maxBatch;
+    // Peer URLs come from discovery, so this client must not be load-balanced. The read timeout
+    // also bounds how long a stopped peer's worker can stay blocked in a post.
+    private final RestTemplate restTemplate;
+    private final Map<String, Peer> peers = new ConcurrentHashMap<>();
+    private volatile int localPort = -1;
+
+    public PeerBridge(
+            DiscoveryClient discovery,
+            InternalSignature signature,
+            ObjectMapper json,
+            @Value("${spring.application.name}") String serviceId,
+            @Value("${notification.broker.mode:peers}") String mode,
+            @Value("${notification.broker.peers.queue-capacity:10000}") int queueCapacity,
+            @Value("${notification.broker.peers.batch-size:256}") int maxBatch,
+            @Value("${notification.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${notification.http.read-timeout-ms:5000}") int readTimeoutMs) {
+        this.discovery = discovery;
+        this.signature = signature;
+        this.json = json;
+        this.serviceId = serviceId;
+        this.enabled = "peers".equalsIgnoreCase(mode);
+        this.queueCapacity = queueCapacity;
+        this.maxBatch = maxBatch;
+        SimpleClientHttpRequestFactory requests = new SimpleClientHttpRequestFactory();
+        requests.setConnectTimeout(connectTimeoutMs);
+        requests.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(requests);
+    }
+
+    /** Hands moves accepted on this instance to every other instance. */
+    public void forward(List<MoveEvent> events) {
+        if (!enabled) return;
+        for (Peer peer : peers.values()) {
+            peer.offer(events);
+        }
+    }
+
+    @EventListener
+    public void onWebServerReady(WebServerInitializedEvent event) {
+        localPort = event.getWebServer().getPort();
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.broker.peers.refresh-ms:5000}")
+    public void refresh() {
+        if (!enabled || localPort < 0) return;
+        Set<String> current = new TreeSet<>();
+        for (ServiceInstance instance : discovery.getInstances(serviceId)) {
+            if (instance.getPort() == localPort && isLocal(instance.getHost())) continue;
+            current.add(instance.getUri().toString());
+        }
+        if (current.equals(peers.keySet())) return;
+
+        for (String url : current) {
+            peers.computeIfAbsent(url, Peer::new);
+        }
+        peers.keySet().removeIf(url -> {
+            if (current.contains(url)) return false;
+            peers.get(url).stop();
+            return true;
+        });
+        log.info("Notification peers: {}", current);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        peers.values().forEach(Peer::stop);
+    }
+
+    private static boolean isLocal(String host) {
+        try {
+            InetAddress address = InetAddress.getByName(host);
+            return address.isLoopbackAddress() || NetworkInterface.getByInetAddress(address) != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private final class Peer {
+        private final String url;
+        private final BlockingQueue<MoveEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread worker;
+        private final AtomicLong dropped = new AtomicLong();
+
+        Peer(String url) {
+            this.url = url;
+            this.worker = new Thread(this::run, "peer-bridge " + url);
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+
+        void offer(List<MoveEvent> events) {
+            int lost = 0;
+            for (MoveEvent event : events) {
+                if (!queue.offer(event)) lost++;
+            }
+            if (lost > 0) {
+                log.warn("Peer {} is behind; dropped {} move events ({} so far)", url, lost, dropped.addAndGet(lost));
+            }
+        }
+
+        void stop() {
+            worker.interrupt();
+        }
+
+        private void run() {
+            List<MoveEvent> batch = new ArrayList<>(maxBatch);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                queue.drainTo(batch, maxBatch - 1);
+                try {
+                    byte[] body = json.writeValueAsBytes(batch);
+                    HttpHeaders headers = signature.headersFor(MOVES_PATH, body);
+                    headers.set(FORWARDED_HEADER, "1");
+                    restTemplate.postForLocation(url + MOVES_PATH, new HttpEntity<>(body, headers));
+                } catch (JsonProcessingException | RuntimeException e) {
+                    log.warn("Forwarding {} move events to {} failed: {}", batch.size(), url, e.getMessage());
+                }
+                batch.clear();
+            }
+        }
+    }
+}
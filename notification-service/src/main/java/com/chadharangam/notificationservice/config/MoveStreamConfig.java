@@ -0,0 +1,38 @@
+package com.chadharangam.notificationservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.chadharangam.notificationservice.stream.MoveStreamHandler;
+
+/**
+ * The raw binary move stream next to the STOMP endpoint. It is fed by the moves this instance
+ * receives, which in {@code relay} mode are not all moves, so it is only offered in
+ * {@code local} and {@code peers} mode.
+ */
+@Configuration
+@EnableWebSocket
+public class MoveStreamConfig implements WebSocketConfigurer {
+
+    private final MoveStreamHandler handler;
+    private final boolean enabled;
+
+    public MoveStreamConfig(
+            MoveStreamHandler handler,
+            @Value("${notification.broker.mode:peers}") String mode,
+            @Value("${notification.stream.enabled:true}") boolean enabled) {
+        this.handler = handler;
+        this.enabled = enabled && !"relay".equalsIgnoreCase(mode);
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        if (!enabled) return;
+        registry.addHandler(handler, "/stream/moves")
+                .addInterceptors(handler)
+                .setAllowedOriginPatterns("*");
+    }
+}
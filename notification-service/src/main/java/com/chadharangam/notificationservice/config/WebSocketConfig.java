@@ -1,17 +1,96 @@
 package com.chadharangam.notificationservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
 
+import com.chadharangam.notificationservice.security.SubscriptionGuard;
+
+/**
+ * STOMP endpoint and broker. {@code notification.broker.mode} picks where subscriptions live:
+ * <ul>
+ *   <li>{@code local} - the in-memory simple broker; one instance only.</li>
+ *   <li>{@code peers} (default) - the simple broker on every instance, with moves handed
+ *       between instances by {@link com.chadharangam.notificationservice.broker.PeerBridge}.</li>
+ *   <li>{@code relay} - an external STOMP broker (ActiveMQ, RabbitMQ's STOMP plugin, ...) at
+ *       {@code notification.broker.relay.*} holds every subscription.</li>
+ * </ul>
+ * Outbound sends are bounded per session: a client that falls behind by more than
+ * {@code notification.ws.send-buffer-bytes} or blocks a send for longer than
+ * {@code notification.ws.send-time-limit-ms} is disconnected, so it cannot hold outbound
+ * threads that other clients' messages wait for.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final SubscriptionGuard guard;
+    private final String mode;
+    private final String relayHost;
+    private final int relayPort;
+    private final String relayLogin;
+    private final String relayPasscode;
+    private final int outboundThreads;
+    private final int sendTimeLimitMs;
+    private final int sendBufferBytes;
+
+    public WebSocketConfig(
+            SubscriptionGuard guard,
+            @Value("${notification.broker.mode:peers}") String mode,
+            @Value("${notification.broker.relay.host:localhost}") String relayHost,
+            @Value("${notification.broker.relay.port:61613}") int relayPort,
+            @Value("${notification.broker.relay.login:guest}") String relayLogin,
+            @Value("${notification.broker.relay.passcode:guest}") String relayPasscode,
+            @Value("${notification.ws.outbound-threads:0}") int outboundThreads,
+            @Value("${notification.ws.send-time-limit-ms:2000}") int sendTimeLimitMs,
+            @Value("${notification.ws.send-buffer-bytes:65536}") int sendBufferBytes) {
+        this.guard = guard;
+        this.mode = mode;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.relayLogin = relayLogin;
+        this.relayPasscode = relayPasscode;
+        this.outboundThreads = outboundThreads > 0 ? outboundThreads : 2 * Runtime.getRuntime().availableProcessors();
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferBytes = sendBufferBytes;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic");
-        registry.setApplicationDestinationPrefixes("/app");
+        // One destination per game: /topic/game/{gameId}
+        if ("relay".equalsIgnoreCase(mode)) {
+            registry.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+        } else {
+            registry.enableSimpleBroker("/topic");
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(guard);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Fixed size. A slow session holds at most one of these threads at a time: messages for
+        // it from other threads are buffered (within the limits below) instead of waiting.
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferBytes);
     }
 
     @Override
@@ -1,17 +1,49 @@
 package com.chadharangam.notificationservice.controller;
 
-import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.stereotype.Controller;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
 
+import com.chadharangam.notificationservice.broker.PeerBridge;
 import com.chadharangam.notificationservice.dto.MoveEvent;
+import com.chadharangam.notificationservice.security.InternalRequestFilter;
+import com.chadharangam.notificationservice.stream.MoveStreamHandler;
 
-@Controller
+import java.util.List;
+
+/**
+ * Receives accepted moves from game-service and fans each one out to its game's topic only,
+ * so a client receives the moves of the game it watches and nothing else. Only signed calls
+ * from game-service and peer instances get here (see {@link InternalRequestFilter}).
+ */
+@RestController
+@RequestMapping("/internal/notifications")
 public class NotificationController {
 
-    @MessageMapping("/move")
-    @SendTo("/topic/game")
-    public MoveEvent broadcastMove(MoveEvent event) {
-        return event;
+    private final SimpMessagingTemplate messaging;
+    private final PeerBridge peers;
+    private final MoveStreamHandler stream;
+
+    public NotificationController(SimpMessagingTemplate messaging, PeerBridge peers, MoveStreamHandler stream) {
+        this.messaging = messaging;
+        this.peers = peers;
+        this.stream = stream;
+    }
+
+    @PostMapping("/moves")
+    public void broadcastMoves(
+            @RequestBody List<MoveEvent> events,
+            @RequestHeader(value = PeerBridge.FORWARDED_HEADER, required = false) String forwarded) {
+        for (MoveEvent event : events) {
+            if (event.gameId == null) continue;
+            messaging.convertAndSend("/topic/game/" + event.gameId, event);
+        }
+        stream.publish(events);
+        if (forwarded == null) {
+            peers.forward(events);
+        }
     }
 }
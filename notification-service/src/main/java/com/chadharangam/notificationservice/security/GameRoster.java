@@ -0,0 +1,63 @@
+package com.chadharangam.notificationservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Who plays which game, looked up in game-service on first subscription. Players never change
+ * during a game, so entries are kept until the least recently used ones are pushed out.
+ */
+@Component
+public class GameRoster {
+
+    private final RestTemplate restTemplate;
+    private final String gameServiceUrl;
+    private final Map<Long, long[]> players;
+
+    public GameRoster(
+            RestTemplate restTemplate,
+            @Value("${notification.game-service-url:http://game-service}") String gameServiceUrl,
+            @Value("${notification.roster.max-size:10000}") int maxSize) {
+        this.restTemplate = restTemplate;
+        this.gameServiceUrl = gameServiceUrl;
+        this.players = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public boolean isPlayer(long gameId, long playerId) {
+        long[] ids;
+        synchronized (players) {
+            ids = players.get(gameId);
+        }
+        if (ids == null) {
+            ids = fetch(gameId);
+            synchronized (players) {
+                players.put(gameId, ids);
+            }
+        }
+        return ids[0] == playerId || ids[1] == playerId;
+    }
+
+    private long[] fetch(long gameId) {
+        Map<?, ?> game;
+        try {
+            game = restTemplate.getForObject(gameServiceUrl + "/api/games/" + gameId, Map.class);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Game not found");
+        }
+        if (game == null
+                || !(game.get("whitePlayerId") instanceof Number white)
+                || !(game.get("blackPlayerId") instanceof Number black)) {
+            throw new RuntimeException("Game not found");
+        }
+        return new long[]{white.longValue(), black.longValue()};
+    }
+}
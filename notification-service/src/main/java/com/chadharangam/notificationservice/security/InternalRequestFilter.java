@@ -0,0 +1,125 @@
+package com.chadharangam.notificationservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lets only game-service and peer instances post to {@code /internal/**}. This service's port is
+ * reachable by browsers (they open their WebSockets on it directly), so the gateway's refusal
+ * of {@code /internal/} paths does not protect these endpoints; every request must carry an
+ * {@link InternalSignature} over its body. Without {@code identity.secret} they are all refused.
+ */
+@Component
+public class InternalRequestFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(InternalRequestFilter.class);
+
+    private static final String PREFIX = "/internal/";
+    private static final int MAX_BODY_BYTES = 4 * 1024 * 1024;
+
+    private final InternalSignature signature;
+
+    public InternalRequestFilter(InternalSignature signature) {
+        this.signature = signature;
+        if (!signature.enabled()) {
+            log.warn("identity.secret is not set; {}** will refuse every request", PREFIX);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getHeader(InternalSignature.SIGNATURE) == null || !signature.enabled()) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Missing internal signature");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+        if (!signature.verify(request.getHeader(InternalSignature.TIMESTAMP), request.getHeader(InternalSignature.SIGNATURE),
+                request.getRequestURI(), body, System.currentTimeMillis())) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Invalid internal signature");
+            return;
+        }
+        chain.doFilter(new ReadBody(request, body), response);
+    }
+
+    /** The request with its already-read body, for the controller to read again. */
+    private static final class ReadBody extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        ReadBody(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
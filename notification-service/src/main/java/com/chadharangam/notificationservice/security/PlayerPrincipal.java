@@ -0,0 +1,25 @@
+package com.chadharangam.notificationservice.security;
+
+import java.security.Principal;
+
+/**
+ * The user behind a STOMP session. {@code playerId} is derived from the token subject the same
+ * way the frontend derives it (32-bit FNV-1a over the UTF-16 code units), so it matches the
+ * ids games are created with.
+ */
+public record PlayerPrincipal(String name, long playerId) implements Principal {
+
+    public static PlayerPrincipal of(String subject) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < subject.length(); i++) {
+            hash ^= subject.charAt(i);
+            hash *= 16777619;
+        }
+        return new PlayerPrincipal(subject, Integer.toUnsignedLong(hash));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
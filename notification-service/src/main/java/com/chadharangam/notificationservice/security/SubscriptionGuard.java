@@ -0,0 +1,97 @@
+package com.chadharangam.notificationservice.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks every frame a browser sends. CONNECT must carry the same {@code Authorization: Bearer}
+ * token the gateway accepts; SUBSCRIBE is only allowed to {@code /topic/game/{gameId}} of a
+ * game the user plays in (or any game when {@code notification.spectators} is on); SEND is
+ * refused, because moves are published by game-service once it has accepted them.
+ */
+@Component
+public class SubscriptionGuard implements ChannelInterceptor {
+
+    static final String GAME_TOPIC = "/topic/game/";
+
+    private final GameRoster roster;
+    private final boolean spectators;
+
+    public SubscriptionGuard(GameRoster roster, @Value("${notification.spectators:false}") boolean spectators) {
+        this.roster = roster;
+        this.spectators = spectators;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) return message;
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+            case SUBSCRIBE -> authorize(accessor);
+            case SEND -> throw new RuntimeException("Clients cannot publish");
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Admission to a game's raw move stream: true for one of its players, false for a
+     * spectator (only when spectators are allowed); anyone else is refused.
+     */
+    public boolean admit(long gameId, PlayerPrincipal player) {
+        if (!spectators) {
+            if (!roster.isPlayer(gameId, player.playerId())) {
+                throw new RuntimeException("Not a player in game " + gameId);
+            }
+            return true;
+        }
+        try {
+            return roster.isPlayer(gameId, player.playerId());
+        } catch (RuntimeException unknownGame) {
+            return false;
+        }
+    }
+
+    public static PlayerPrincipal authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new RuntimeException("Missing token");
+        }
+        Claims claims;
+        try {
+            claims = JwtUtil.validateToken(authHeader.substring(7));
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid token");
+        }
+        return PlayerPrincipal.of(claims.getSubject());
+    }
+
+    private void authorize(StompHeaderAccessor accessor) {
+        if (!(accessor.getUser() instanceof PlayerPrincipal player)) {
+            throw new RuntimeException("Not authenticated");
+        }
+        long gameId = gameIdOf(accessor.getDestination());
+        if (!spectators && !roster.isPlayer(gameId, player.playerId())) {
+            throw new RuntimeException("Not a player in game " + gameId);
+        }
+    }
+
+    private static long gameIdOf(String destination) {
+        if (destination == null || !destination.startsWith(GAME_TOPIC)) {
+            throw new RuntimeException("Unknown destination");
+        }
+        try {
+            return Long.parseLong(destination.substring(GAME_TOPIC.length()));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Unknown destination");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.chadharangam.notificationservice.stream;
+
+import com.chadharangam.notificationservice.dto.MoveEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary frames of the raw move stream. One frame carries one or more consecutive moves of
+ * one game:
+ * <pre>
+ * frame = varint gameId, varint count, count x move
+ * move  = u16 move (big-endian), varint ply, varint clockMs + 1 (0 = untimed)
+ * </pre>
+ * Varints are unsigned LEB128. The 16-bit move is game-service's engine encoding: bits 0-5
+ * from square, 6-11 to square (a1 = 0, h8 = 63), 12-15 flags, with promotions
+ * {@code 8 + 0..3} for knight, bishop, rook, queen (plus 4 when capturing). Clients replay the
+ * moves on their own board, so no FEN is sent; a typical move costs 5-8 bytes.
+ */
+public final class MoveFrames {
+
+    /** One decoded move; {@code clockMs} is -1 for untimed games. */
+    public record FrameMove(int move, int ply, long clockMs) {
+    }
+
+    public record Frame(long gameId, List<FrameMove> moves) {
+    }
+
+    private MoveFrames() {
+    }
+
+    /** Encodes the moves that carry an engine move; returns {@code null} if none does. */
+    public static byte[] encode(long gameId, List<MoveEvent> events) {
+        int count = 0;
+        for (MoveEvent e : events) {
+            if (e.move != null) count++;
+        }
+        if (count == 0) return null;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + count * 8);
+        writeVarint(out, gameId);
+        writeVarint(out, count);
+        for (MoveEvent e : events) {
+            if (e.move == null) continue;
+            out.write(e.move >>> 8);
+            out.write(e.move);
+            writeVarint(out, e.moveNumber == null ? 0 : e.moveNumber);
+            writeVarint(out, e.clockMs == null ? 0 : Math.max(0, e.clockMs) + 1);
+        }
+        return out.toByteArray();
+    }
+
+    public static Frame decode(ByteBuffer in) {
+        long gameId = readVarint(in);
+        int count = (int) readVarint(in);
+        List<FrameMove> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int move = Short.toUnsignedInt(in.getShort());
+            int ply = (int) readVarint(in);
+            long clock = readVarint(in) - 1;
+            moves.add(new FrameMove(move, ply, clock));
+        }
+        return new Frame(gameId, moves);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new RuntimeException("Malformed varint");
+    }
+}
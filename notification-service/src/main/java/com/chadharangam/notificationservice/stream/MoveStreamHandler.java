@@ -0,0 +1,180 @@
+package com.chadharangam.notificationservice.stream;
+
+import com.chadharangam.notificationservice.dto.MoveEvent;
+import com.chadharangam.notificationservice.security.PlayerPrincipal;
+import com.chadharangam.notificationservice.security.SubscriptionGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Raw WebSocket alternative to the STOMP topics, at {@code /stream/moves?gameId=..}, sending
+ * {@link MoveFrames} instead of JSON. The token comes as {@code access_token} (browsers cannot
+ * set headers on a WebSocket) or an {@code Authorization} header. Players get a frame as soon
+ * as a move arrives; spectators get every {@code notification.stream.spectator-flush-ms} one
+ * frame with all moves since the last. Sends are bounded like the STOMP sessions'.
+ */
+@Component
+public class MoveStreamHandler extends BinaryWebSocketHandler implements HandshakeInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(MoveStreamHandler.class);
+
+    private static final String GAME_ID = "gameId";
+    private static final String PLAYER = "player";
+
+    private static final class GameStream {
+        final Map<String, WebSocketSession> players = new ConcurrentHashMap<>();
+        final Map<String, WebSocketSession> spectators = new ConcurrentHashMap<>();
+        final List<MoveEvent> pending = new ArrayList<>(); // guarded by itself
+
+        boolean isEmpty() {
+            return players.isEmpty() && spectators.isEmpty();
+        }
+    }
+
+    private final SubscriptionGuard guard;
+    private final int sendTimeLimitMs;
+    private final int sendBufferBytes;
+    private final Map<Long, GameStream> games = new ConcurrentHashMap<>();
+
+    public MoveStreamHandler(
+            SubscriptionGuard guard,
+            @Value("${notification.ws.send-time-limit-ms:2000}") int sendTimeLimitMs,
+            @Value("${notification.ws.send-buffer-bytes:65536}") int sendBufferBytes) {
+        this.guard = guard;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferBytes = sendBufferBytes;
+    }
+
+    // ===== Handshake =====
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Map<String, String> query = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().toSingleValueMap();
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null && query.get("access_token") != null) {
+            authHeader = "Bearer " + query.get("access_token");
+        }
+        try {
+            PlayerPrincipal user = SubscriptionGuard.authenticate(authHeader);
+            long gameId = Long.parseLong(query.getOrDefault(GAME_ID, ""));
+            attributes.put(PLAYER, guard.admit(gameId, user));
+            attributes.put(GAME_ID, gameId);
+            return true;
+        } catch (RuntimeException e) {
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            return false;
+        }
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    // ===== Sessions =====
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        long gameId = (Long) session.getAttributes().get(GAME_ID);
+        WebSocketSession bounded = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, sendBufferBytes);
+        boolean player = (Boolean) session.getAttributes().get(PLAYER);
+        // Inside compute, so a concurrent close cannot drop the stream between lookup and put.
+        games.compute(gameId, (id, stream) -> {
+            if (stream == null) stream = new GameStream();
+            (player ? stream.players : stream.spectators).put(session.getId(), bounded);
+            return stream;
+        });
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        long gameId = (Long) session.getAttributes().get(GAME_ID);
+        games.computeIfPresent(gameId, (id, stream) -> {
+            stream.players.remove(session.getId());
+            stream.spectators.remove(session.getId());
+            return stream.isEmpty() ? null : stream;
+        });
+    }
+
+    // ===== Delivery =====
+
+    /** Sends moves to this node's players right away and queues them for its spectators. */
+    public void publish(List<MoveEvent> events) {
+        if (games.isEmpty()) return;
+        Map<Long, List<MoveEvent>> byGame = new LinkedHashMap<>();
+        for (MoveEvent event : events) {
+            if (event.gameId == null || event.move == null || !games.containsKey(event.gameId)) continue;
+            byGame.computeIfAbsent(event.gameId, id -> new ArrayList<>()).add(event);
+        }
+        byGame.forEach((gameId, moves) -> {
+            GameStream stream = games.get(gameId);
+            if (stream == null) return;
+            if (!stream.players.isEmpty()) {
+                sendAll(stream.players, MoveFrames.encode(gameId, moves));
+            }
+            if (!stream.spectators.isEmpty()) {
+                synchronized (stream.pending) {
+                    stream.pending.addAll(moves);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream.spectator-flush-ms:500}")
+    public void flushSpectators() {
+        games.forEach((gameId, stream) -> {
+            List<MoveEvent> moves;
+            synchronized (stream.pending) {
+                if (stream.pending.isEmpty()) return;
+                moves = new ArrayList<>(stream.pending);
+                stream.pending.clear();
+            }
+            sendAll(stream.spectators, MoveFrames.encode(gameId, moves));
+        });
+    }
+
+    private static void sendAll(Map<String, WebSocketSession> sessions, byte[] frame) {
+        if (frame == null) return;
+        for (WebSocketSession session : sessions.values()) {
+            try {
+                session.sendMessage(new BinaryMessage(frame));
+            } catch (IOException | RuntimeException e) {
+                // Gone, or over the buffer or time limit: drop it rather than hold the others up.
+                log.debug("Dropping move stream session {}: {}", session.getId(), e.getMessage());
+                sessions.remove(session.getId());
+                closeQuietly(session);
+            }
+        }
+    }
+
+    private static void closeQuietly(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException | RuntimeException ignored) {
+            // already closed
+        }
+    }
+}
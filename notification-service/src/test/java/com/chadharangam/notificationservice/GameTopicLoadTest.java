@@ -0,0 +1,185 @@
+package com.chadharangam.notificationservice;
+
+import com.chadharangam.notificationservice.security.GameRoster;
+import com.chadharangam.notificationservice.security.InternalSignature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-client fan-out under load: for each game count, one STOMP client per game subscribes to
+ * its game's topic, every game gets the same number of moves, and the test counts what each
+ * client receives. With per-game topics that stays at one frame per move of the client's own
+ * game however many games run; the old shared {@code /topic/game} delivered every game's moves
+ * to every client.
+ *
+ * <pre>mvn test -Dtest=GameTopicLoadTest -Dbenchmarks=true -Dbenchmark.games=10,100,400</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=" + GameTopicLoadTest.SECRET,
+        "identity.secret=" + GameTopicLoadTest.SECRET,
+        "eureka.client.enabled=false"
+})
+class GameTopicLoadTest {
+
+    static final String SECRET = "test-secret-test-secret-test-secret-0123";
+    private static final String MOVES_PATH = "/internal/notifications/moves";
+
+    private static final int[] GAMES = Arrays.stream(System.getProperty("benchmark.games", "10,50,200").split(","))
+            .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+    private static final int MOVES = Integer.getInteger("benchmark.moves", 20);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private InternalSignature signature;
+
+    @MockBean
+    private GameRoster roster;
+
+    /** What one client received: MESSAGE frames and payload bytes, probes excluded. */
+    private static final class Inbound {
+        final AtomicLong probes = new AtomicLong();
+        final AtomicLong frames = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+    }
+
+    @Test
+    void perClientTrafficDoesNotGrowWithGames() throws Exception {
+        when(roster.isPlayer(anyLong(), anyLong())).thenReturn(true);
+        WebSocketStompClient stomp = new WebSocketStompClient(new StandardWebSocketClient());
+        StompHeaders connect = new StompHeaders();
+        connect.add("Authorization", "Bearer " + Jwts.builder().setSubject("load")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes())).compact());
+
+        long firstGame = 1;
+        Long framesPerClient = null;
+        for (int games : GAMES) {
+            Map<Long, Inbound> clients = new HashMap<>();
+            List<StompSession> sessions = new ArrayList<>();
+            for (long gameId = firstGame; gameId < firstGame + games; gameId++) {
+                Inbound inbound = new Inbound();
+                StompSession session = stomp.connectAsync("ws://localhost:" + port + "/ws/websocket",
+                        new WebSocketHttpHeaders(), connect, new StompSessionHandlerAdapter() {
+                        }).get(10, TimeUnit.SECONDS);
+                session.subscribe("/topic/game/" + gameId, counter(inbound));
+                clients.put(gameId, inbound);
+                sessions.add(session);
+            }
+
+            // SUBSCRIBE has no acknowledgement from the simple broker: probe until every client hears its game.
+            awaitProbes(clients);
+
+            List<Map<String, Object>> batch = new ArrayList<>();
+            for (int ply = 1; ply <= MOVES; ply++) {
+                for (long gameId : clients.keySet()) {
+                    batch.add(Map.of("gameId", gameId, "playerId", 1, "from", "e2", "to", "e4", "moveNumber", ply,
+                            "fen", "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", "status", "ONGOING"));
+                }
+            }
+            long start = System.nanoTime();
+            postMoves(batch);
+            long expected = (long) games * MOVES;
+            while (total(clients) < expected && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30)) {
+                Thread.sleep(10);
+            }
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            Thread.sleep(200); // anything misrouted would show up now
+
+            long maxFrames = 0;
+            long maxBytes = 0;
+            for (Inbound inbound : clients.values()) {
+                assertEquals(MOVES, inbound.frames.get(), "frames per client with " + games + " games");
+                maxFrames = Math.max(maxFrames, inbound.frames.get());
+                maxBytes = Math.max(maxBytes, inbound.bytes.get());
+            }
+            System.out.printf("games %5d: per client %d frames / %d bytes (shared topic: %d frames); %d moves delivered in %d ms%n",
+                    games, maxFrames, maxBytes, expected, expected, elapsedMs);
+
+            if (framesPerClient != null) assertEquals(framesPerClient, maxFrames);
+            framesPerClient = maxFrames;
+            sessions.forEach(StompSession::disconnect);
+            firstGame += games;
+        }
+        stomp.stop();
+    }
+
+    private void awaitProbes(Map<Long, Inbound> clients) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            List<Map<String, Object>> probes = new ArrayList<>();
+            clients.forEach((gameId, inbound) -> {
+                if (inbound.probes.get() == 0) probes.add(Map.of("gameId", gameId, "moveNumber", 0));
+            });
+            if (probes.isEmpty()) return;
+            postMoves(probes);
+            Thread.sleep(50);
+        }
+        assertTrue(clients.values().stream().allMatch(c -> c.probes.get() > 0), "every client subscribed");
+    }
+
+    private static long total(Map<Long, Inbound> clients) {
+        return clients.values().stream().mapToLong(c -> c.frames.get()).sum();
+    }
+
+    private static StompFrameHandler counter(Inbound inbound) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                byte[] body = (byte[]) payload;
+                if (new String(body, StandardCharsets.UTF_8).contains("\"moveNumber\":0")) {
+                    inbound.probes.incrementAndGet();
+                } else {
+                    inbound.frames.incrementAndGet();
+                    inbound.bytes.addAndGet(body.length);
+                }
+            }
+        };
+    }
+
+    // Signed as game-service signs its batches.
+    private void postMoves(Object events) throws Exception {
+        byte[] body = new ObjectMapper().writeValueAsBytes(events);
+        rest.postForLocation(MOVES_PATH, new HttpEntity<>(body, signature.headersFor(MOVES_PATH, body)));
+    }
+}
@@ -3,7 +3,7 @@ package com.chadharangam.notificationservice;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "jwt.secret=test-secret-test-secret-test-secret-0123")
 class NotificationServiceApplicationTests {
 
     @Test
@@ -0,0 +1,134 @@
+package com.chadharangam.notificationservice.broker;
+
+import com.chadharangam.notificationservice.NotificationServiceApplication;
+import com.chadharangam.notificationservice.security.InternalSignature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two notification nodes in one JVM in {@code peers} mode, sharing a static discovery list; the
+ * in-memory simple broker of each node stands in for a shared external broker. A move posted
+ * to one node must reach a subscriber on the other, exactly once.
+ */
+class NotificationClusterTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123";
+    private static final String MOVES_PATH = "/internal/notifications/moves";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static int portA;
+    private static int portB;
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        portA = freePort();
+        portB = freePort();
+        nodeA = start(portA);
+        nodeB = start(portB);
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        if (nodeA != null) nodeA.close();
+        if (nodeB != null) nodeB.close();
+    }
+
+    @Test
+    void movePostedToOneNodeReachesSubscribersOnTheOther() throws Exception {
+        WebSocketStompClient stomp = new WebSocketStompClient(new StandardWebSocketClient());
+        StompHeaders connect = new StompHeaders();
+        connect.add("Authorization", "Bearer " + Jwts.builder().setSubject("watcher")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes())).compact());
+        StompSession session = stomp.connectAsync("ws://localhost:" + portB + "/ws/websocket",
+                new WebSocketHttpHeaders(), connect, new StompSessionHandlerAdapter() {
+                }).get(10, TimeUnit.SECONDS);
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        session.subscribe("/topic/game/7", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add(new String((byte[]) payload, StandardCharsets.UTF_8));
+            }
+        });
+
+        // Probe until the subscription is live and node A has discovered node B.
+        RestTemplate client = new RestTemplate();
+        String probe = null;
+        for (int i = 0; i < 100 && probe == null; i++) {
+            postMoves(client, portA, List.of(Map.of("gameId", 7, "moveNumber", 0)));
+            probe = received.poll(100, TimeUnit.MILLISECONDS);
+        }
+        assertNotNull(probe, "probe relayed from node A to node B");
+        Thread.sleep(300);
+        received.clear();
+
+        postMoves(client, portA, List.of(Map.of("gameId", 7, "playerId", 1, "from", "e2", "to", "e4", "moveNumber", 1)));
+
+        String move = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(move);
+        assertTrue(move.contains("\"moveNumber\":1"));
+        assertNull(received.poll(300, TimeUnit.MILLISECONDS), "delivered once, not bounced back");
+        session.disconnect();
+        stomp.stop();
+    }
+
+    private static ConfigurableApplicationContext start(int port) {
+        return new SpringApplicationBuilder(NotificationServiceApplication.class).run(
+                "--server.port=" + port,
+                "--jwt.secret=" + SECRET,
+                "--identity.secret=" + SECRET,
+                "--eureka.client.enabled=false",
+                "--notification.spectators=true",
+                "--notification.broker.mode=peers",
+                "--notification.broker.peers.refresh-ms=100",
+                "--spring.cloud.discovery.client.simple.instances.notification-service[0].uri=http://localhost:" + portA,
+                "--spring.cloud.discovery.client.simple.instances.notification-service[1].uri=http://localhost:" + portB);
+    }
+
+    // Signed as game-service signs its batches.
+    private static void postMoves(RestTemplate client, int port, Object events) throws Exception {
+        byte[] body = new ObjectMapper().writeValueAsBytes(events);
+        client.postForLocation("http://localhost:" + port + MOVES_PATH,
+                new HttpEntity<>(body, new InternalSignature(SECRET).headersFor(MOVES_PATH, body)));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
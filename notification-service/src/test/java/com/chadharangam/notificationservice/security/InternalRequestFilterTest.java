@@ -0,0 +1,81 @@
+package com.chadharangam.notificationservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InternalRequestFilterTest {
+
+    private static final String PATH = "/internal/notifications/moves";
+    private static final byte[] BODY = "[{\"gameId\":7,\"moveNumber\":1}]".getBytes(StandardCharsets.UTF_8);
+
+    private final InternalSignature signature = new InternalSignature("identity-secret");
+    private final InternalRequestFilter filter = new InternalRequestFilter(signature);
+
+    @Test
+    void signedRequestsReachTheControllerWithTheirBody() throws Exception {
+        MockHttpServletRequest request = post(signature, BODY);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(BODY, chain.getRequest().getInputStream().readAllBytes());
+    }
+
+    @Test
+    void unsignedForgedOrTamperedRequestsAreRefused() throws Exception {
+        MockHttpServletRequest unsigned = post(signature, BODY);
+        unsigned.removeHeader(InternalSignature.SIGNATURE);
+        assertRefused(unsigned);
+
+        assertRefused(post(new InternalSignature("another-secret"), BODY));
+
+        MockHttpServletRequest tampered = post(signature, BODY);
+        tampered.setContent("[{\"gameId\":8,\"moveNumber\":1}]".getBytes(StandardCharsets.UTF_8));
+        assertRefused(tampered);
+
+        MockHttpServletRequest stale = post(signature, BODY);
+        long then = System.currentTimeMillis() - 2 * InternalSignature.MAX_AGE_MS;
+        stale.removeHeader(InternalSignature.TIMESTAMP);
+        stale.removeHeader(InternalSignature.SIGNATURE);
+        stale.addHeader(InternalSignature.TIMESTAMP, Long.toString(then));
+        stale.addHeader(InternalSignature.SIGNATURE, signature.sign(then, PATH, BODY));
+        assertRefused(stale);
+    }
+
+    @Test
+    void withoutASecretEverythingIsRefused() throws Exception {
+        InternalRequestFilter open = new InternalRequestFilter(new InternalSignature(""));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        open.doFilter(post(signature, BODY), response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    private void assertRefused(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    private static MockHttpServletRequest post(InternalSignature signer, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.setContent(body);
+        signer.headersFor(PATH, body).forEach((name, values) -> values.forEach(v -> request.addHeader(name, v)));
+        return request;
+    }
+}
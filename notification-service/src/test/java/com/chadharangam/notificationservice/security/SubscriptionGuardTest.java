@@ -0,0 +1,79 @@
+package com.chadharangam.notificationservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.security.Principal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SubscriptionGuardTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123";
+
+    private SubscriptionGuard guard;
+    private PlayerPrincipal alice;
+
+    @BeforeEach
+    void setUp() {
+        new JwtUtil().setSecretKey(SECRET);
+        alice = PlayerPrincipal.of("alice");
+        GameRoster roster = mock(GameRoster.class);
+        when(roster.isPlayer(anyLong(), anyLong())).thenReturn(false);
+        when(roster.isPlayer(5L, alice.playerId())).thenReturn(true);
+        guard = new SubscriptionGuard(roster, false);
+    }
+
+    @Test
+    void connectNeedsAValidToken() {
+        assertThrows(RuntimeException.class, () -> guard.preSend(connect(null), null));
+        assertThrows(RuntimeException.class, () -> guard.preSend(connect("Bearer not-a-token"), null));
+
+        String token = Jwts.builder().setSubject("alice").signWith(Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+        Message<?> connected = guard.preSend(connect("Bearer " + token), null);
+
+        Principal user = StompHeaderAccessor.wrap(connected).getUser();
+        assertEquals(alice, user);
+    }
+
+    @Test
+    void playersSubscribeToTheirOwnGameOnly() {
+        guard.preSend(frame(StompCommand.SUBSCRIBE, "/topic/game/5", alice), null);
+
+        assertThrows(RuntimeException.class, () -> guard.preSend(frame(StompCommand.SUBSCRIBE, "/topic/game/6", alice), null));
+        assertThrows(RuntimeException.class, () -> guard.preSend(frame(StompCommand.SUBSCRIBE, "/topic/game", alice), null));
+        assertThrows(RuntimeException.class, () -> guard.preSend(frame(StompCommand.SUBSCRIBE, "/topic/game/5", null), null));
+        assertThrows(RuntimeException.class, () -> guard.preSend(frame(StompCommand.SEND, "/topic/game/5", alice), null));
+    }
+
+    @Test
+    void playerIdMatchesTheFrontendHash() {
+        // stablePlayerIdFromSub("alice") in the frontend
+        assertEquals(2_267_157_479L, PlayerPrincipal.of("alice").playerId());
+    }
+
+    private static Message<byte[]> connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) accessor.setNativeHeader("Authorization", authorization);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
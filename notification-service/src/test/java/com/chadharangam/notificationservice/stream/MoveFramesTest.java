@@ -0,0 +1,47 @@
+package com.chadharangam.notificationservice.stream;
+
+import com.chadharangam.notificationservice.dto.MoveEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MoveFramesTest {
+
+    @Test
+    void roundTripsABatchOfMoves() {
+        MoveEvent e4 = move(1, 12 | 28 << 6 | 1 << 12, 179_500L);   // e2e4, double push
+        MoveEvent e5 = move(2, 52 | 36 << 6 | 1 << 12, 178_250L);   // e7e5
+        MoveEvent probe = new MoveEvent();                           // no engine move: skipped
+
+        byte[] frame = MoveFrames.encode(9_000_000_000L, List.of(e4, probe, e5));
+        MoveFrames.Frame decoded = MoveFrames.decode(ByteBuffer.wrap(frame));
+
+        assertEquals(9_000_000_000L, decoded.gameId());
+        assertEquals(List.of(
+                new MoveFrames.FrameMove(e4.move, 1, 179_500L),
+                new MoveFrames.FrameMove(e5.move, 2, 178_250L)), decoded.moves());
+    }
+
+    @Test
+    void aMoveOfAnUntimedGameIsAFewBytes() {
+        byte[] frame = MoveFrames.encode(42, List.of(move(1, 12 | 28 << 6, null)));
+
+        // gameId 1 + count 1 + move 2 + ply 1 + clock 1
+        assertEquals(6, frame.length);
+        assertEquals(-1, MoveFrames.decode(ByteBuffer.wrap(frame)).moves().get(0).clockMs());
+        assertNull(MoveFrames.encode(42, List.of(new MoveEvent())));
+    }
+
+    private static MoveEvent move(int ply, int packed, Long clockMs) {
+        MoveEvent e = new MoveEvent();
+        e.gameId = 1L;
+        e.moveNumber = ply;
+        e.move = packed;
+        e.clockMs = clockMs;
+        return e;
+    }
+}
@@ -0,0 +1,237 @@
+package com.chadharangam.notificationservice.stream;
+
+import com.chadharangam.notificationservice.security.GameRoster;
+import com.chadharangam.notificationservice.security.InternalSignature;
+import com.chadharangam.notificationservice.security.PlayerPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bytes per move and delivered moves per second for the two transports, on the wire: STOMP
+ * over SockJS's WebSocket transport with JSON bodies, and the binary {@code /stream/moves}
+ * frames for players (one frame per incoming batch) and spectators (one frame per flush
+ * interval). One game is watched by the same number of clients of each kind while moves arrive
+ * {@code benchmark.batch} per POST: 1 is live play, where delivery keeps up with the poster;
+ * larger batches load the fan-out itself.
+ *
+ * <pre>mvn test -Dtest=MoveTransportLoadTest -Dbenchmarks=true -Dbenchmark.clients=50 -Dbenchmark.moves=20000 -Dbenchmark.batch=1</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=" + MoveTransportLoadTest.SECRET,
+        "identity.secret=" + MoveTransportLoadTest.SECRET,
+        "eureka.client.enabled=false",
+        "notification.spectators=true",
+        "notification.stream.spectator-flush-ms=250"
+})
+class MoveTransportLoadTest {
+
+    static final String SECRET = "test-secret-test-secret-test-secret-0123";
+    private static final String MOVES_PATH = "/internal/notifications/moves";
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 20);
+    private static final int MOVES = Integer.getInteger("benchmark.moves", 500);
+    private static final int BATCH = Integer.getInteger("benchmark.batch", 1);
+    private static final long GAME_ID = 123_456;
+    private static final String FEN = "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private InternalSignature signature;
+
+    @MockBean
+    private GameRoster roster;
+
+    /** Moves (probes excluded) and the wire bytes that carried them. */
+    private static final class Inbound {
+        final AtomicLong probes = new AtomicLong();
+        final AtomicLong moves = new AtomicLong();
+        final AtomicLong frames = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+    }
+
+    @Test
+    void binaryFramesAreSmallerThanStompJson() throws Exception {
+        String playerToken = token("player");
+        when(roster.isPlayer(anyLong(), anyLong())).thenReturn(false);
+        when(roster.isPlayer(eq(GAME_ID), eq(PlayerPrincipal.of("player").playerId()))).thenReturn(true);
+
+        StandardWebSocketClient ws = new StandardWebSocketClient();
+        Map<String, List<Inbound>> kinds = new HashMap<>();
+        List<WebSocketSession> sessions = new ArrayList<>();
+        for (String kind : List.of("stomp", "binary-player", "binary-spectator")) {
+            List<Inbound> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                Inbound inbound = new Inbound();
+                clients.add(inbound);
+                sessions.add(switch (kind) {
+                    case "stomp" -> ws.execute(stompClient(inbound, token("watcher")),
+                            "ws://localhost:" + port + "/ws/000/stomp" + i + "/websocket").get(10, TimeUnit.SECONDS);
+                    case "binary-player" -> ws.execute(binaryClient(inbound),
+                            "ws://localhost:" + port + "/stream/moves?gameId=" + GAME_ID + "&access_token=" + playerToken)
+                            .get(10, TimeUnit.SECONDS);
+                    default -> ws.execute(binaryClient(inbound),
+                            "ws://localhost:" + port + "/stream/moves?gameId=" + GAME_ID + "&access_token=" + token("watcher"))
+                            .get(10, TimeUnit.SECONDS);
+                });
+            }
+            kinds.put(kind, clients);
+        }
+
+        // Subscriptions are asynchronous: probe until every client has heard one, then let
+        // the last spectator flush pass.
+        List<Inbound> all = kinds.values().stream().flatMap(List::stream).toList();
+        for (int i = 0; i < 300 && !all.stream().allMatch(c -> c.probes.get() > 0); i++) {
+            postMoves(List.of(event(0)));
+            Thread.sleep(50);
+        }
+        assertTrue(all.stream().allMatch(c -> c.probes.get() > 0), "every client subscribed");
+        Thread.sleep(600);
+
+        long start = System.nanoTime();
+        Map<String, Long> doneAt = new HashMap<>();
+        for (int ply = 1; ply <= MOVES; ply += BATCH) {
+            List<Map<String, Object>> batch = new ArrayList<>();
+            for (int p = ply; p < ply + BATCH && p <= MOVES; p++) batch.add(event(p));
+            postMoves(batch);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (doneAt.size() < kinds.size() && System.nanoTime() < deadline) {
+            kinds.forEach((kind, clients) -> {
+                if (!doneAt.containsKey(kind) && clients.stream().allMatch(c -> c.moves.get() >= MOVES)) {
+                    doneAt.put(kind, System.nanoTime());
+                }
+            });
+            Thread.sleep(5);
+        }
+
+        System.out.printf("%d moves of one game, %d per POST, %d clients per transport%n", MOVES, BATCH, CLIENTS);
+        Map<String, Double> bytesPerMove = new HashMap<>();
+        for (String kind : List.of("stomp", "binary-player", "binary-spectator")) {
+            List<Inbound> clients = kinds.get(kind);
+            long moves = clients.stream().mapToLong(c -> c.moves.get()).sum();
+            long frames = clients.stream().mapToLong(c -> c.frames.get()).sum();
+            long bytes = clients.stream().mapToLong(c -> c.bytes.get()).sum();
+            assertEquals((long) MOVES * CLIENTS, moves, kind + " moves delivered");
+            double elapsedS = (doneAt.get(kind) - start) / 1e9;
+            bytesPerMove.put(kind, (double) bytes / moves);
+            System.out.printf("  %-16s %7.1f bytes/move  %6.2f moves/frame  %,10.0f moves/s delivered%n",
+                    kind, (double) bytes / moves, (double) moves / frames, moves / elapsedS);
+        }
+        assertTrue(bytesPerMove.get("binary-player") * 4 < bytesPerMove.get("stomp"));
+
+        for (WebSocketSession session : sessions) session.close();
+    }
+
+    private static Map<String, Object> event(int ply) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("gameId", GAME_ID);
+        event.put("moveNumber", ply);
+        event.put("move", ply == 0 ? 0 : 12 | 28 << 6 | 1 << 12);
+        if (ply > 0) {
+            event.put("playerId", 3_735_928_559L);
+            event.put("from", "e2");
+            event.put("to", "e4");
+            event.put("fen", FEN);
+            event.put("status", "ONGOING");
+            event.put("clockMs", 180_000L - ply * 500L);
+        }
+        return event;
+    }
+
+    private static String token(String subject) {
+        return Jwts.builder().setSubject(subject).signWith(Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+    }
+
+    /** STOMP by hand over SockJS framing, so every byte the browser would receive is counted. */
+    private static TextWebSocketHandler stompClient(Inbound inbound, String token) {
+        ObjectMapper json = new ObjectMapper();
+        return new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+                String payload = message.getPayload();
+                if (payload.equals("o")) {
+                    send(session, "CONNECT\naccept-version:1.2\nheart-beat:0,0\nAuthorization:Bearer " + token + "\n\n\u0000");
+                } else if (payload.startsWith("a[") && payload.contains("CONNECTED")) {
+                    send(session, "SUBSCRIBE\nid:0\ndestination:/topic/game/" + GAME_ID + "\n\n\u0000");
+                } else if (payload.startsWith("a[") && payload.contains("MESSAGE")) {
+                    int messages = count(payload, "MESSAGE\\n");
+                    int probes = count(payload, "\\\"moveNumber\\\":0,");
+                    inbound.probes.addAndGet(probes);
+                    if (messages > probes) {
+                        inbound.moves.addAndGet(messages - probes);
+                        inbound.frames.incrementAndGet();
+                        inbound.bytes.addAndGet(payload.getBytes(StandardCharsets.UTF_8).length);
+                    }
+                }
+            }
+
+            private void send(WebSocketSession session, String frame) throws Exception {
+                session.sendMessage(new TextMessage(json.writeValueAsString(List.of(frame))));
+            }
+        };
+    }
+
+    private static BinaryWebSocketHandler binaryClient(Inbound inbound) {
+        return new BinaryWebSocketHandler() {
+            @Override
+            protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+                int bytes = message.getPayloadLength();
+                MoveFrames.Frame frame = MoveFrames.decode(message.getPayload());
+                long moves = frame.moves().stream().filter(m -> m.ply() > 0).count();
+                inbound.probes.addAndGet(frame.moves().size() - moves);
+                if (moves > 0) {
+                    inbound.moves.addAndGet(moves);
+                    inbound.frames.incrementAndGet();
+                    inbound.bytes.addAndGet(bytes);
+                }
+            }
+        };
+    }
+
+    private static int count(String haystack, String needle) {
+        int n = 0;
+        for (int i = haystack.indexOf(needle); i >= 0; i = haystack.indexOf(needle, i + 1)) n++;
+        return n;
+    }
+
+    // Signed as game-service signs its batches.
+    private void postMoves(Object events) throws Exception {
+        byte[] body = new ObjectMapper().writeValueAsBytes(events);
+        rest.postForLocation(MOVES_PATH, new HttpEntity<>(body, signature.headersFor(MOVES_PATH, body)));
+    }
+}
@@ -48,7 +48,7 @@ if ($Build) {
 }
 
 $srJar = Join-Path $srDir 'target\service-registry-0.0.1-SNAPSHOT.jar'
-$gwJar = Join-Path $gwDir 'target\api-gateway-0.0.1-SNAPSHOT.jar'
+$gwJar = Join-Path $gwDir 'target\api-gateway-0.0.1-SNAPSHOT-exec.jar'
 $usJar = Join-Path $usDir 'target\user-service-0.0.1-SNAPSHOT.jar'
 
 Ensure-Jar $srJar
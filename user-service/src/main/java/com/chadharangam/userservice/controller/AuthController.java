@@ -7,6 +7,8 @@ import com.chadharangam.userservice.dto.RegisterRequest;
 import com.chadharangam.userservice.entity.User;
 import com.chadharangam.userservice.service.UserService;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/users")
 public class AuthController {
@@ -34,7 +36,13 @@ public class AuthController {
                 request.password
         );
 
-        return JwtUtil.generateToken(user.getUsername());
+        return JwtUtil.generateToken(user.getUsername(), user.getEloRating());
+    }
+
+    @GetMapping("/{username}/rating")
+    public Map<String, Object> rating(@PathVariable String username) {
+        User user = service.findByUsername(username);
+        return Map.of("username", user.getUsername(), "eloRating", user.getEloRating());
     }
 
 }
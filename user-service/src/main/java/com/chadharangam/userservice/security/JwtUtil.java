@@ -29,9 +29,14 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
     }
 
-    public static String generateToken(String username) {
+    /**
+     * The rating goes into the token so the gateway can pass it on with the caller's identity;
+     * it is the rating at login.
+     */
+    public static String generateToken(String username, int rating) {
         return Jwts.builder()
                 .setSubject(username)
+                .claim("rating", rating)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
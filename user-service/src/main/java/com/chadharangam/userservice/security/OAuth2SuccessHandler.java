@@ -95,7 +95,7 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
 
             userRepository.save(user);
 
-            String jwt = JwtUtil.generateToken(user.getUsername());
+            String jwt = JwtUtil.generateToken(user.getUsername(), user.getEloRating());
             String redirect = frontendBaseUrl + "/oauth2/callback?token="
                     + URLEncoder.encode(jwt, StandardCharsets.UTF_8);
 
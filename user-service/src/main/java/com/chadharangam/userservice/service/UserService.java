@@ -33,5 +33,9 @@ public class UserService {
         return user;
     }
 
+    public User findByUsername(String username) {
+        return repo.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
 
 }